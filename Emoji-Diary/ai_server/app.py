@@ -10,6 +10,7 @@ import os
 from pathlib import Path
 import uvicorn
 import json
+import asyncio
 
 
 project_root = Path(__file__).parent
@@ -20,6 +21,7 @@ project_root = Path(__file__).parent
 from middleware.anaysis_emotion import (
     load_trained_model,
     predict_emotion,
+    predict_emotions,
     initialize_tokenizer_and_vocab
 )
 from middleware.nano_banana import nano_banana
@@ -100,12 +102,97 @@ def read_root():
     return {"test": "Hello, World!"}
 
 
+def _model_not_loaded():
+    return emotion_model is None or tokenizer is None or vocab is None
+
+
+def _analyze_text(request: AiServerRequest, content: str):
+    """감정 분석 + 피드백(코멘트/음식 추천) 생성. 이미지 생성은 포함하지 않는다."""
+    emotion, confidence, probabilities = predict_emotion(
+        emotion_model, content, tokenizer, vocab, max_len
+    )
+    
+    return _build_text_result(request, content, emotion)
+
+
+def _build_text_result(request: AiServerRequest, content: str, emotion: str):
+    """분류된 감정으로 피드백(코멘트/음식 추천)을 생성하여 텍스트 분석 응답을 만든다."""
+    ai_comment = ""
+    recommended_food = {"name": "", "reason": ""}
+    
+    try:
+        persona_str = request.persona.value.replace("_", " ")
+        
+        feedback_input = json.dumps({
+            "감정": emotion,
+            "일기": content
+        }, ensure_ascii=False)
+        
+        feedback_response = generate_feedback(persona_str, feedback_input)
+        
+        if feedback_response:
+            feedback_text = feedback_response.text.strip()
+            
+            if "```json" in feedback_text:
+                json_start = feedback_text.find("```json") + 7
+                json_end = feedback_text.find("```", json_start)
+                feedback_text = feedback_text[json_start:json_end].strip()
+            elif "```" in feedback_text:
+                json_start = feedback_text.find("```") + 3
+                json_end = feedback_text.find("```", json_start)
+                feedback_text = feedback_text[json_start:json_end].strip()
+            
+            try:
+                feedback_json = json.loads(feedback_text)
+                ai_comment = feedback_json.get("Action_Advice", "")
+                food_recommendation = feedback_json.get("Food_Recommendation", "")
+                
+                if food_recommendation:
+                    if ':' in food_recommendation:
+                        parts = food_recommendation.split(':', 1)  
+                        food_name = parts[0].strip()
+                        reason = parts[1].strip() if len(parts) > 1 else ""
+                        recommended_food = {"name": food_name, "reason": reason}
+                    elif '.' in food_recommendation:
+                        parts = [p.strip() for p in food_recommendation.split('.') if p.strip()]
+                        if len(parts) >= 2:
+                            food_name = parts[0].strip()
+                            reason = '. '.join(parts[1:]).strip()
+                            recommended_food = {"name": food_name, "reason": reason}
+                        else:
+                            recommended_food = {"name": parts[0].strip(), "reason": ""}
+                    else:
+                        recommended_food = {"name": food_recommendation.strip(), "reason": ""}
+                else:
+                    recommended_food = {"name": "", "reason": ""}
+            except json.JSONDecodeError:
+                ai_comment = feedback_text
+    except Exception as fb_e:
+        print(f"피드백 생성 중 오류: {str(fb_e)}")
+        ai_comment = ""
+    
+    return {
+        "emotion": emotion,
+        "aiComment": ai_comment,
+        "recommendedFood": recommended_food,
+    }
+
+
+def _generate_image(request: AiServerRequest, content: str):
+    """그림일기 이미지 생성 (Base64). 실패 시 None"""
+    try:
+        image_data = nano_banana(content, request.gender, request.weather)
+        if image_data:
+            return base64.b64encode(image_data).decode('utf-8')
+    except Exception as img_e:
+        print(f"이미지 생성 중 오류: {str(img_e)}")
+    return None
+
+
 @app.post("/api/ai/diary")
 async def ai_analyze(request: AiServerRequest):
-    global emotion_model, tokenizer, vocab
-    
     try:
-        if emotion_model is None or tokenizer is None or vocab is None:
+        if _model_not_loaded():
             return {
                 "error": "감정 분석 모델이 로드되지 않았습니다",
                 "detail": "서버 시작 시 모델 로드에 실패했습니다"
@@ -119,87 +206,112 @@ async def ai_analyze(request: AiServerRequest):
                 "detail": "content가 필요합니다"
             }
         
-        emotion, confidence, probabilities = predict_emotion(
-            emotion_model, content, tokenizer, vocab, max_len
-        )
-        
-        ai_comment = ""
-        recommended_food = {"name": "", "reason": ""}
+        response_data = _analyze_text(request, content)
+        response_data["image"] = _generate_image(request, content)
         
-        try:
-            persona_str = request.persona.value.replace("_", " ")
-            
-            feedback_input = json.dumps({
-                "감정": emotion,
-                "일기": content
-            }, ensure_ascii=False)
-            
-            feedback_response = generate_feedback(persona_str, feedback_input)
-            
-            if feedback_response:
-                feedback_text = feedback_response.text.strip()
-                
-                if "```json" in feedback_text:
-                    json_start = feedback_text.find("```json") + 7
-                    json_end = feedback_text.find("```", json_start)
-                    feedback_text = feedback_text[json_start:json_end].strip()
-                elif "```" in feedback_text:
-                    json_start = feedback_text.find("```") + 3
-                    json_end = feedback_text.find("```", json_start)
-                    feedback_text = feedback_text[json_start:json_end].strip()
-                
-                try:
-                    feedback_json = json.loads(feedback_text)
-                    ai_comment = feedback_json.get("Action_Advice", "")
-                    food_recommendation = feedback_json.get("Food_Recommendation", "")
-                    
-                    if food_recommendation:
-                        if ':' in food_recommendation:
-                            parts = food_recommendation.split(':', 1)  
-                            food_name = parts[0].strip()
-                            reason = parts[1].strip() if len(parts) > 1 else ""
-                            recommended_food = {"name": food_name, "reason": reason}
-                        elif '.' in food_recommendation:
-                            parts = [p.strip() for p in food_recommendation.split('.') if p.strip()]
-                            if len(parts) >= 2:
-                                food_name = parts[0].strip()
-                                reason = '. '.join(parts[1:]).strip()
-                                recommended_food = {"name": food_name, "reason": reason}
-                            else:
-                                recommended_food = {"name": parts[0].strip(), "reason": ""}
-                        else:
-                            recommended_food = {"name": food_recommendation.strip(), "reason": ""}
-                    else:
-                        recommended_food = {"name": "", "reason": ""}
-                except json.JSONDecodeError:
-                    ai_comment = feedback_text
-        except Exception as fb_e:
-            print(f"피드백 생성 중 오류: {str(fb_e)}")
-            ai_comment = ""
+        return response_data
+    
+    except Exception as e:
+        return {
+            "error": "처리 중 오류 발생",
+            "detail": str(e)
+        }
+
+
+@app.post("/api/ai/diary/text")
+async def ai_analyze_text(request: AiServerRequest):
+    """1단계: 감정/코멘트/음식 추천만 반환 (백엔드 요청 경로에서 동기 호출)"""
+    try:
+        if _model_not_loaded():
+            return {
+                "error": "감정 분석 모델이 로드되지 않았습니다",
+                "detail": "서버 시작 시 모델 로드에 실패했습니다"
+            }
         
-        generated_image_base64 = None
+        content = request.content.strip()
         
-        try:
-            image_data = nano_banana(content, request.gender, request.weather)
-            if image_data:
-                generated_image_base64 = base64.b64encode(image_data).decode('utf-8')
-        except Exception as img_e:
-            print(f"이미지 생성 중 오류: {str(img_e)}")
+        if not content:
+            return {
+                "error": "분석할 내용이 없습니다",
+                "detail": "content가 필요합니다"
+            }
         
-        response_data = {
-            "emotion": emotion,
-            "aiComment": ai_comment,
-            "recommendedFood": recommended_food,
-            "image": generated_image_base64 if generated_image_base64 else None
+        return _analyze_text(request, content)
+    
+    except Exception as e:
+        return {
+            "error": "처리 중 오류 발생",
+            "detail": str(e)
+        }
+
+
+class AiServerBatchRequest(BaseModel):
+    items: List[AiServerRequest]
+
+
+@app.post("/api/ai/diary/text/batch")
+async def ai_analyze_text_batch(request: AiServerBatchRequest):
+    """1단계 배치: 감정 분류는 한 번의 forward로, 피드백 생성은 항목별로 동시에 수행한다.
+    results는 items와 같은 순서이며, 실패한 항목만 {error, detail}로 채운다."""
+    if _model_not_loaded():
+        return {
+            "error": "감정 분석 모델이 로드되지 않았습니다",
+            "detail": "서버 시작 시 모델 로드에 실패했습니다"
         }
-        
-        return response_data
     
+    contents = [item.content.strip() for item in request.items]
+    results = [None] * len(contents)
+    valid_indexes = []
+    for index, content in enumerate(contents):
+        if content:
+            valid_indexes.append(index)
+        else:
+            results[index] = {
+                "error": "분석할 내용이 없습니다",
+                "detail": "content가 필요합니다"
+            }
+    
+    try:
+        predictions = predict_emotions(
+            emotion_model, [contents[i] for i in valid_indexes], tokenizer, vocab, max_len
+        ) if valid_indexes else []
     except Exception as e:
         return {
             "error": "처리 중 오류 발생",
             "detail": str(e)
         }
+    
+    async def feedback(index, emotion):
+        try:
+            results[index] = await asyncio.to_thread(
+                _build_text_result, request.items[index], contents[index], emotion
+            )
+        except Exception as e:
+            results[index] = {
+                "error": "처리 중 오류 발생",
+                "detail": str(e)
+            }
+    
+    await asyncio.gather(*(
+        feedback(index, emotion)
+        for index, (emotion, confidence, probabilities) in zip(valid_indexes, predictions)
+    ))
+    
+    return {"results": results}
+
+
+@app.post("/api/ai/diary/image")
+async def ai_generate_image(request: AiServerRequest):
+    """2단계: 이미지만 생성 (백엔드 백그라운드 단계에서 호출)"""
+    content = request.content.strip()
+    
+    if not content:
+        return {
+            "error": "분석할 내용이 없습니다",
+            "detail": "content가 필요합니다"
+        }
+    
+    return {"image": _generate_image(request, content)}
 
 if __name__ == "__main__":
     port = int(os.getenv("PORT", 8000))
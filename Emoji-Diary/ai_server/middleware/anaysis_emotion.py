@@ -198,6 +198,39 @@ def predict_emotion(model, sentence, tokenizer, vocab, max_len=128):
     return emotion, confidence, probabilities.cpu().numpy()
 
 
+
+def predict_emotions(model, sentences, tokenizer, vocab, max_len=128):
+    """여러 문장을 한 번의 forward로 분류 (배치 크기만큼 GPU/CPU 활용도가 올라간다)"""
+    emotion_names = ['분노', '슬픔', '불안', '행복', '혐오', '당황', '중립']
+    
+    transform = BERTSentenceTransform(tokenizer, max_seq_length=max_len, vocab=vocab, pad=True, pair=False)
+    
+    token_id_rows, valid_lengths, segment_id_rows = [], [], []
+    for sentence in sentences:
+        token_ids, valid_length, segment_ids = transform([sentence])
+        token_id_rows.append(np.asarray(token_ids).tolist())
+        valid_lengths.append(int(np.asarray(valid_length).reshape(-1)[0]))
+        segment_id_rows.append(np.asarray(segment_ids).tolist())
+    
+    token_ids = torch.LongTensor(token_id_rows).to(device)
+    valid_length = torch.LongTensor(valid_lengths).to(device)
+    segment_ids = torch.LongTensor(segment_id_rows).to(device)
+    
+    model.eval()
+    with torch.no_grad():
+        output = model(token_ids, valid_length, segment_ids)
+        probabilities = torch.softmax(output, dim=1)
+        preds = output.argmax(dim=1).tolist()
+    
+    results = []
+    for row, pred in enumerate(preds):
+        results.append((
+            emotion_names[pred],
+            probabilities[row][pred].item() * 100,
+            probabilities[row].cpu().numpy()
+        ))
+    return results
+
 def initialize_tokenizer_and_vocab():
     tokenizer = KoBERTTokenizer.from_pretrained('skt/kobert-base-v1')
     vocab = SimpleVocab(tokenizer)
@@ -0,0 +1,127 @@
+package com.p_project.p_project_backend.backend_admin.controller;
+
+import com.p_project.p_project_backend.backend_admin.dto.reanalysis.ReanalysisResumeRequest;
+import com.p_project.p_project_backend.backend_admin.dto.reanalysis.ReanalysisStartRequest;
+import com.p_project.p_project_backend.backend_admin.dto.reanalysis.ReanalysisStatusResponse;
+import com.p_project.p_project_backend.backend_admin.service.AdminReanalysisService;
+import com.p_project.p_project_backend.entity.Admin;
+import com.p_project.p_project_backend.repository.AdminRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/reanalysis")
+@RequiredArgsConstructor
+public class AdminReanalysisController {
+
+    private static final String ERROR_MESSAGE_AUTHENTICATION_REQUIRED = "인증 정보가 없습니다.";
+    private static final String ERROR_MESSAGE_ADMIN_NOT_FOUND = "관리자 정보를 찾을 수 없습니다.";
+
+    private final AdminReanalysisService adminReanalysisService;
+    private final AdminRepository adminRepository;
+
+    /**
+     * 재분석 진행 상황 조회 (가장 최근 작업)
+     * GET /api/admin/reanalysis
+     */
+    @GetMapping
+    public ResponseEntity<?> getStatus() {
+        ReanalysisStatusResponse response = adminReanalysisService.getLatestStatus();
+        // 작업이 없으면 data: null (Map.of는 null 값을 허용하지 않음)
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", true);
+        body.put("data", response);
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * 재분석 시작
+     * POST /api/admin/reanalysis
+     */
+    @PostMapping
+    public ResponseEntity<?> start(
+            @RequestBody(required = false) @Valid ReanalysisStartRequest request,
+            Authentication authentication
+    ) {
+        Long adminId = getAdminIdFromAuthentication(authentication);
+        try {
+            ReanalysisStatusResponse response = adminReanalysisService.start(
+                    request != null ? request : new ReanalysisStartRequest(), adminId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("success", true, "data", response));
+        } catch (IllegalStateException e) {
+            return conflict(e);
+        }
+    }
+
+    /**
+     * 재분석 일시정지 (진행 중인 청크가 끝난 뒤 멈춤)
+     * POST /api/admin/reanalysis/{jobId}/pause
+     */
+    @PostMapping("/{jobId}/pause")
+    public ResponseEntity<?> pause(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(Map.of("success", true, "data", adminReanalysisService.pause(jobId)));
+        } catch (IllegalStateException e) {
+            return conflict(e);
+        }
+    }
+
+    /**
+     * 재분석 재개 (체크포인트부터, 요청 속도 변경 가능)
+     * POST /api/admin/reanalysis/{jobId}/resume
+     */
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<?> resume(
+            @PathVariable Long jobId,
+            @RequestBody(required = false) @Valid ReanalysisResumeRequest request
+    ) {
+        try {
+            return ResponseEntity.ok(Map.of("success", true, "data", adminReanalysisService.resume(jobId, request)));
+        } catch (IllegalStateException e) {
+            return conflict(e);
+        }
+    }
+
+    /**
+     * 재분석 취소
+     * POST /api/admin/reanalysis/{jobId}/cancel
+     */
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<?> cancel(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(Map.of("success", true, "data", adminReanalysisService.cancel(jobId)));
+        } catch (IllegalStateException e) {
+            return conflict(e);
+        }
+    }
+
+    private ResponseEntity<?> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("success", false, "error",
+                        Map.of("code", "REANALYSIS_STATE_CONFLICT", "message", e.getMessage())));
+    }
+
+    /**
+     * Authentication에서 관리자 ID 추출
+     */
+    private Long getAdminIdFromAuthentication(Authentication authentication) {
+        if (authentication == null || authentication.getPrincipal() == null) {
+            throw new RuntimeException(ERROR_MESSAGE_AUTHENTICATION_REQUIRED);
+        }
+
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String email = userDetails.getUsername();
+
+        return adminRepository.findByEmail(email)
+                .map(Admin::getId)
+                .orElseThrow(() -> new RuntimeException(ERROR_MESSAGE_ADMIN_NOT_FOUND));
+    }
+}
@@ -0,0 +1,20 @@
+package com.p_project.p_project_backend.backend_admin.dto.reanalysis;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReanalysisResumeRequest {
+
+    // 재개하면서 바꿀 초당 최대 AI 요청 수 (없으면 기존 값 유지)
+    @Positive(message = "요청 속도는 0보다 커야 합니다")
+    private Double ratePerSecond;
+}
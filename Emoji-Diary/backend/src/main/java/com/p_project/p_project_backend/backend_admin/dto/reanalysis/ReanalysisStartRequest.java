@@ -0,0 +1,23 @@
+package com.p_project.p_project_backend.backend_admin.dto.reanalysis;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReanalysisStartRequest {
+
+    // AI 코멘트도 갱신할지 여부 (기본값: 감정만 갱신)
+    private Boolean includeComment;
+
+    // 초당 최대 AI 요청 수 (없으면 diary.reanalysis.default-rate)
+    @Positive(message = "요청 속도는 0보다 커야 합니다")
+    private Double ratePerSecond;
+}
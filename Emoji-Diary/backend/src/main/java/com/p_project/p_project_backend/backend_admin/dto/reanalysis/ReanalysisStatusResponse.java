@@ -0,0 +1,32 @@
+package com.p_project.p_project_backend.backend_admin.dto.reanalysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReanalysisStatusResponse {
+    private Long jobId;
+    private String status; // RUNNING, PAUSED, COMPLETED, CANCELLED
+    private Boolean includeComment;
+    private Long totalCount;
+    private Long processedCount;
+    private Long changedCount; // 감정이 바뀐 일기 수
+    private Long failedCount;
+    private Long lastDiaryId; // 체크포인트
+    private Double progressRate; // 처리율 (%)
+    private Double ratePerSecond; // 설정된 초당 최대 요청 수
+    private Double observedRatePerSecond; // 최근 청크의 실제 처리 속도 (이 노드에서 실행 중일 때만)
+    private Integer maxConcurrency; // AI 텍스트 분석 동시 호출 한도 중 재분석에 허용된 수
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
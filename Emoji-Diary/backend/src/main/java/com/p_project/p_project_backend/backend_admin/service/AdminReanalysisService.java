@@ -0,0 +1,480 @@
+package com.p_project.p_project_backend.backend_admin.service;
+
+import com.p_project.p_project_backend.backend_admin.dto.reanalysis.ReanalysisResumeRequest;
+import com.p_project.p_project_backend.backend_admin.dto.reanalysis.ReanalysisStartRequest;
+import com.p_project.p_project_backend.backend_admin.dto.reanalysis.ReanalysisStatusResponse;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerRequest;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServiceResult;
+import com.p_project.p_project_backend.backend_user.service.AiMetrics;
+import com.p_project.p_project_backend.backend_user.service.AiResilience;
+import com.p_project.p_project_backend.backend_user.service.AiService;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchIndex;
+import com.p_project.p_project_backend.entity.Admin;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.Diary.Emotion;
+import com.p_project.p_project_backend.entity.ReanalysisJob;
+import com.p_project.p_project_backend.entity.ReanalysisJob.Status;
+import com.p_project.p_project_backend.exception.AdminNotFoundException;
+import com.p_project.p_project_backend.exception.AiUnavailableException;
+import com.p_project.p_project_backend.repository.AdminDiaryRepository;
+import com.p_project.p_project_backend.repository.AdminRepository;
+import com.p_project.p_project_backend.repository.ReanalysisJobRepository;
+import com.p_project.p_project_backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 관리자 일괄 재분석
+ * 감정 모델을 다시 학습한 뒤 기존 일기(분석 완료, 삭제되지 않은 일기)의 감정(선택 시 AI 코멘트까지)을 다시 매긴다.
+ * - id 순 청크 단위로 처리하고, 청크마다 체크포인트(last_diary_id)를 기록하므로 일시정지/재개/재기동 후 이어서 처리한다.
+ * - 초당 요청 수(토큰 버킷)와 동시 호출 수(AI 텍스트 동시 호출 한도 × ai-share)를 함께 제한해
+ *   사용자 요청의 AI 처리량을 잠식하지 않는다. AI 서버 서킷이 열려 있으면 기다린다.
+ * - 한 작업은 한 노드에서만 실행된다 (locked_by/locked_until 할당, 만료 시 다른 노드가 이어받음).
+ * 일시정지/취소는 진행 중인 청크가 끝난 뒤 반영된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminReanalysisService {
+
+    private static final String ERROR_MESSAGE_ADMIN_NOT_FOUND = "관리자를 찾을 수 없습니다.";
+    private static final String ERROR_MESSAGE_ALREADY_ACTIVE = "진행 중이거나 일시정지된 재분석 작업이 있습니다.";
+    private static final String ERROR_MESSAGE_JOB_NOT_FOUND = "재분석 작업을 찾을 수 없습니다.";
+    private static final String ERROR_MESSAGE_INVALID_STATUS = "현재 상태에서는 요청을 처리할 수 없습니다: ";
+
+    // AI 서버가 일시적으로 호출을 거절할 때(서킷/벌크헤드) 항목당 재시도 횟수
+    private static final int UNAVAILABLE_RETRIES = 3;
+
+    private final ReanalysisJobRepository reanalysisJobRepository;
+    private final AdminDiaryRepository adminDiaryRepository;
+    private final AdminRepository adminRepository;
+    private final AiService aiService;
+    private final AiResilience aiResilience;
+    private final DiarySearchIndex diarySearchIndex;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${diary.jobs.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Value("${diary.reanalysis.default-rate:5}")
+    private double defaultRate;
+
+    @Value("${diary.reanalysis.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${diary.reanalysis.ai-share:0.25}")
+    private double aiShare;
+
+    @Value("${diary.reanalysis.lease:10m}")
+    private Duration lease;
+
+    @Value("${diary.reanalysis.idle-wait:5s}")
+    private Duration idleWait;
+
+    private final TokenBucket rateLimiter = new TokenBucket();
+    private final AtomicReference<Long> runningJobId = new AtomicReference<>();
+    private volatile double observedRate;
+    private ThreadPoolTaskExecutor worker;
+
+    @PostConstruct
+    void initWorker() {
+        worker = new ThreadPoolTaskExecutor();
+        worker.setCorePoolSize(1);
+        worker.setMaxPoolSize(1);
+        worker.setQueueCapacity(1);
+        worker.setThreadNamePrefix("diary-reanalysis-");
+        worker.initialize();
+    }
+
+    @PreDestroy
+    void shutdownWorker() {
+        worker.shutdown();
+    }
+
+    /**
+     * 재분석 시작
+     * 진행 중이거나 일시정지된 작업이 있으면 시작하지 않는다.
+     */
+    public ReanalysisStatusResponse start(ReanalysisStartRequest request, Long adminId) {
+        ReanalysisJob job = inWriteTransaction(() -> {
+            if (reanalysisJobRepository.existsByStatusIn(EnumSet.of(Status.RUNNING, Status.PAUSED))) {
+                throw new IllegalStateException(ERROR_MESSAGE_ALREADY_ACTIVE);
+            }
+            Admin admin = findAdminById(adminId);
+            LocalDateTime now = LocalDateTime.now();
+            return reanalysisJobRepository.save(ReanalysisJob.builder()
+                    .status(Status.RUNNING)
+                    .includeComment(Boolean.TRUE.equals(request.getIncludeComment()))
+                    .ratePerSecond(request.getRatePerSecond() != null ? request.getRatePerSecond() : defaultRate)
+                    .totalCount(adminDiaryRepository.countReanalysisTargets())
+                    .startedBy(admin)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        });
+
+        log.info("Reanalysis job started: jobId={}, adminId={}, total={}", job.getId(), adminId, job.getTotalCount());
+        launch(job.getId());
+        return toResponse(job);
+    }
+
+    public ReanalysisStatusResponse pause(Long jobId) {
+        return toResponse(changeStatus(jobId, Status.RUNNING, Status.PAUSED, null));
+    }
+
+    public ReanalysisStatusResponse resume(Long jobId, ReanalysisResumeRequest request) {
+        Double rate = request != null ? request.getRatePerSecond() : null;
+        ReanalysisJob job = changeStatus(jobId, Status.PAUSED, Status.RUNNING, rate);
+        launch(jobId);
+        return toResponse(job);
+    }
+
+    public ReanalysisStatusResponse cancel(Long jobId) {
+        return toResponse(inWriteTransaction(() -> {
+            ReanalysisJob job = findJobById(jobId);
+            if (job.getStatus() != Status.RUNNING && job.getStatus() != Status.PAUSED) {
+                throw new IllegalStateException(ERROR_MESSAGE_INVALID_STATUS + job.getStatus());
+            }
+            LocalDateTime now = LocalDateTime.now();
+            job.setStatus(Status.CANCELLED);
+            job.setCompletedAt(now);
+            job.setUpdatedAt(now);
+            return job;
+        }));
+    }
+
+    /**
+     * 가장 최근 재분석 작업의 진행 상황 (없으면 null)
+     */
+    public ReanalysisStatusResponse getLatestStatus() {
+        return inReadTransaction(() -> reanalysisJobRepository.findTopByOrderByIdDesc()
+                .map(this::toResponse)
+                .orElse(null));
+    }
+
+    /**
+     * 진행 중인데 실행 중인 노드가 없는 작업을 이어서 실행한다 (재기동, 실행 노드 장애 등).
+     */
+    @Scheduled(fixedDelayString = "${diary.reanalysis.watch-interval-ms:30000}")
+    public void resumeOrphanedJobs() {
+        if (runningJobId.get() != null) {
+            return;
+        }
+        reanalysisJobRepository.findByStatus(Status.RUNNING)
+                .forEach(job -> launch(job.getId()));
+    }
+
+    private ReanalysisJob changeStatus(Long jobId, Status from, Status to, Double ratePerSecond) {
+        return inWriteTransaction(() -> {
+            ReanalysisJob job = findJobById(jobId);
+            if (job.getStatus() != from) {
+                throw new IllegalStateException(ERROR_MESSAGE_INVALID_STATUS + job.getStatus());
+            }
+            job.setStatus(to);
+            if (ratePerSecond != null) {
+                job.setRatePerSecond(ratePerSecond);
+            }
+            job.setUpdatedAt(LocalDateTime.now());
+            return job;
+        });
+    }
+
+    private void launch(Long jobId) {
+        // 이 노드에서는 한 번에 하나의 작업만 실행한다. 실행 중인 루프는 청크마다 상태를 다시 읽으므로
+        // 일시정지 직후의 재개 요청도 그대로 이어진다.
+        if (!runningJobId.compareAndSet(null, jobId)) {
+            return;
+        }
+        try {
+            boolean claimed = inWriteTransaction(() -> {
+                LocalDateTime now = LocalDateTime.now();
+                return reanalysisJobRepository.claim(jobId, nodeId, now, now.plus(lease)) > 0;
+            });
+            if (!claimed) {
+                runningJobId.set(null);
+                return;
+            }
+            worker.execute(() -> run(jobId));
+        } catch (RuntimeException e) {
+            runningJobId.set(null);
+            log.warn("Reanalysis job launch failed: jobId={}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private void run(Long jobId) {
+        try {
+            while (true) {
+                ReanalysisJob job = inReadTransaction(() -> reanalysisJobRepository.findById(jobId).orElse(null));
+                if (job == null || job.getStatus() != Status.RUNNING) {
+                    return;
+                }
+                rateLimiter.setRate(job.getRatePerSecond());
+
+                if (!aiResilience.isAvailable(AiResilience.Phase.TEXT)) {
+                    // 서킷이 닫힐 때까지 할당만 연장하며 기다린다
+                    if (!checkpoint(job, job.getLastDiaryId(), new ChunkResult(0, 0, 0))) {
+                        return;
+                    }
+                    Thread.sleep(idleWait.toMillis());
+                    continue;
+                }
+
+                List<ReanalysisItem> items = loadChunk(job);
+                if (items.isEmpty()) {
+                    complete(jobId);
+                    return;
+                }
+
+                long startedAt = System.nanoTime();
+                List<ItemResult> results = analyze(items);
+                if (!applyChunk(job, results, items.get(items.size() - 1).diaryId())) {
+                    log.info("Reanalysis job lease lost: jobId={}", jobId);
+                    return;
+                }
+                double elapsedSeconds = Math.max(System.nanoTime() - startedAt, 1) / 1_000_000_000.0;
+                observedRate = items.size() / elapsedSeconds;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // 할당을 풀어 두면 다음 감시 주기에 체크포인트부터 다시 시작한다
+            log.error("Reanalysis job failed: jobId={}", jobId, e);
+        } finally {
+            observedRate = 0;
+            try {
+                inWriteTransaction(() -> reanalysisJobRepository.release(jobId, nodeId));
+            } finally {
+                runningJobId.set(null);
+            }
+        }
+    }
+
+    private List<ReanalysisItem> loadChunk(ReanalysisJob job) {
+        // 청크 하나가 할당 시간의 절반 안에 끝나도록 요청 속도에 맞춰 줄인다
+        int limit = (int) Math.max(1, Math.min(chunkSize, job.getRatePerSecond() * lease.toSeconds() / 2));
+        return inReadTransaction(() -> adminDiaryRepository
+                .findReanalysisChunk(job.getLastDiaryId(), PageRequest.of(0, limit))
+                .stream()
+                .map(ReanalysisItem::of)
+                .toList());
+    }
+
+    private List<ItemResult> analyze(List<ReanalysisItem> items) {
+        int concurrency = maxConcurrency();
+        // concatMap에서 요청 직전에 토큰을 예약하고, flatMap 동시성으로 진행 중인 호출 수를 제한한다
+        return Flux.fromIterable(items)
+                .concatMap(item -> Mono.delay(rateLimiter.reserve()).thenReturn(item))
+                .flatMap(item -> aiService.reanalyzeTextAsync(item.request())
+                        .retryWhen(Retry.backoff(UNAVAILABLE_RETRIES, idleWait)
+                                .filter(AiUnavailableException.class::isInstance))
+                        .contextWrite(AiMetrics.operation(AiMetrics.Operation.REANALYSIS))
+                        .map(result -> new ItemResult(item, result))
+                        .onErrorResume(e -> {
+                            log.warn("Reanalysis failed: diaryId={}: {}", item.diaryId(), e.getMessage());
+                            return Mono.just(new ItemResult(item, null));
+                        }), concurrency)
+                .collectList()
+                .block();
+    }
+
+    /**
+     * 청크 결과 반영과 체크포인트 기록을 한 트랜잭션으로 처리한다. 할당을 잃었으면 반영하지 않는다.
+     */
+    private boolean applyChunk(ReanalysisJob job, List<ItemResult> results, long lastDiaryId) {
+        return Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> {
+            long changed = 0;
+            long failed = 0;
+            for (ItemResult result : results) {
+                String outcome = apply(job, result);
+                meterRegistry.counter("diary.reanalysis.items", "outcome", outcome).increment();
+                if ("changed".equals(outcome)) {
+                    changed++;
+                } else if ("failed".equals(outcome)) {
+                    failed++;
+                }
+            }
+            if (!checkpoint(job, lastDiaryId, new ChunkResult(results.size(), changed, failed))) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        }));
+    }
+
+    private String apply(ReanalysisJob job, ItemResult result) {
+        if (result.result() == null) {
+            return "failed";
+        }
+        Emotion emotion;
+        try {
+            emotion = Emotion.valueOf(result.result().getEmotion());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return "failed";
+        }
+
+        ReanalysisItem item = result.item();
+        int updated = job.isIncludeComment()
+                ? adminDiaryRepository.updateReanalyzedEmotionAndComment(item.diaryId(), item.request().getContent(),
+                        emotion, result.result().getAiComment())
+                : adminDiaryRepository.updateReanalyzedEmotion(item.diaryId(), item.request().getContent(), emotion);
+        if (updated == 0) {
+            // 분석 중 수정/삭제된 일기
+            return "skipped";
+        }
+        // 코멘트만 바뀌었을 수도 있으므로 감정과 관계없이 버전을 올린다
+        userRepository.incrementDiaryVersion(item.userId());
+        long version = userRepository.findDiaryVersion(item.userId());
+        if (emotion == item.emotion()) {
+            diarySearchIndex.versionChanged(item.userId(), version);
+            return "unchanged";
+        }
+        diarySearchIndex.emotionChanged(item.userId(), item.diaryId(), emotion, version);
+        return "changed";
+    }
+
+    private boolean checkpoint(ReanalysisJob job, long lastDiaryId, ChunkResult result) {
+        boolean advanced = inWriteTransaction(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return reanalysisJobRepository.advanceCheckpoint(job.getId(), nodeId, lastDiaryId,
+                    result.processed(), result.changed(), result.failed(), now, now.plus(lease)) > 0;
+        });
+        if (advanced) {
+            job.setLastDiaryId(lastDiaryId);
+        }
+        return advanced;
+    }
+
+    private void complete(Long jobId) {
+        inWriteTransaction(() -> reanalysisJobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == Status.RUNNING)
+                .map(job -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    job.setStatus(Status.COMPLETED);
+                    job.setCompletedAt(now);
+                    job.setUpdatedAt(now);
+                    log.info("Reanalysis job completed: jobId={}, processed={}, changed={}, failed={}",
+                            jobId, job.getProcessedCount(), job.getChangedCount(), job.getFailedCount());
+                    return job;
+                }));
+    }
+
+    private int maxConcurrency() {
+        return Math.max(1, (int) (aiResilience.maxConcurrent(AiResilience.Phase.TEXT) * aiShare));
+    }
+
+    private ReanalysisStatusResponse toResponse(ReanalysisJob job) {
+        double progressRate = job.getTotalCount() > 0
+                ? Math.min(100.0, Math.round(job.getProcessedCount() * 1000.0 / job.getTotalCount()) / 10.0)
+                : (job.getStatus() == Status.COMPLETED ? 100.0 : 0.0);
+        Long running = runningJobId.get();
+        return ReanalysisStatusResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .includeComment(job.isIncludeComment())
+                .totalCount(job.getTotalCount())
+                .processedCount(job.getProcessedCount())
+                .changedCount(job.getChangedCount())
+                .failedCount(job.getFailedCount())
+                .lastDiaryId(job.getLastDiaryId())
+                .progressRate(progressRate)
+                .ratePerSecond(job.getRatePerSecond())
+                .observedRatePerSecond(job.getId().equals(running) ? Math.round(observedRate * 100) / 100.0 : null)
+                .maxConcurrency(maxConcurrency())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    private ReanalysisJob findJobById(Long jobId) {
+        return reanalysisJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException(ERROR_MESSAGE_JOB_NOT_FOUND));
+    }
+
+    private Admin findAdminById(Long adminId) {
+        return adminRepository.findById(adminId)
+                .orElseThrow(() -> {
+                    log.warn("Admin not found: adminId={}", adminId);
+                    return new AdminNotFoundException(ERROR_MESSAGE_ADMIN_NOT_FOUND);
+                });
+    }
+
+    private <T> T inReadTransaction(Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> action.get());
+    }
+
+    private <T> T inWriteTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private record ReanalysisItem(Long diaryId, Long userId, Emotion emotion, AiServerRequest request) {
+        static ReanalysisItem of(Diary diary) {
+            // 페르소나는 작성 시점 스냅샷을 사용한다
+            return new ReanalysisItem(diary.getId(), diary.getUser().getId(), diary.getEmotion(),
+                    AiServerRequest.builder()
+                            .content(diary.getContent())
+                            .weather(diary.getWeather())
+                            .persona(diary.getPersona())
+                            .gender(diary.getUser().getGender())
+                            .userId(diary.getUser().getId())
+                            .build());
+        }
+    }
+
+    private record ItemResult(ReanalysisItem item, AiServiceResult result) {
+    }
+
+    private record ChunkResult(long processed, long changed, long failed) {
+    }
+
+    /**
+     * 초당 요청 수 제한 (토큰 버킷, 최대 1초치까지 모아 둘 수 있음)
+     * reserve()는 토큰을 미리 차감하고 그만큼 기다려야 할 시간을 돌려준다.
+     */
+    private static class TokenBucket {
+        private double rate = 1;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        synchronized void setRate(double rate) {
+            refill();
+            this.rate = rate;
+        }
+
+        synchronized Duration reserve() {
+            refill();
+            tokens -= 1;
+            return tokens >= 0 ? Duration.ZERO : Duration.ofNanos((long) (-tokens / rate * 1_000_000_000L));
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(Math.max(1, rate), tokens + (now - lastRefill) * rate / 1_000_000_000L);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.p_project.p_project_backend.backend_user.controller;
+
+import com.p_project.p_project_backend.entity.User;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 조건부 GET (ETag / If-None-Match)
+ * ETag는 사용자의 일기 변경 버전(users.diary_version)으로 만든다. 사용자는 인증 시 이미 읽으므로
+ * 바뀐 것이 없으면 일기 행을 읽거나 DTO를 만들지 않고 304로 응답한다.
+ * 응답은 사용자별 데이터이므로 private, 매번 재검증(no-cache)하도록 내려준다.
+ */
+final class ConditionalResponses {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    static String diaryEtag(User user) {
+        return "\"d" + user.getDiaryVersion() + "\"";
+    }
+
+    /**
+     * 오늘 날짜를 기준으로 기간을 정하는 응답(통계 등)은 날짜가 바뀌면 달라지므로 날짜도 넣는다
+     */
+    static String diaryEtag(User user, LocalDate today) {
+        return "\"d" + user.getDiaryVersion() + "-" + today + "\"";
+    }
+
+    static ResponseEntity<?> okIfModified(ServletWebRequest request, String etag, Supplier<?> data) {
+        // ETag 헤더(와 일치 시 304 상태)는 checkNotModified가 설정한다
+        if (request.checkNotModified(etag)) {
+            // Spring Security 기본값(no-store)이 붙으면 브라우저가 ETag를 보관하지 않으므로 캐시 정책을 직접 지정한다
+            if (request.getResponse() != null) {
+                request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+            }
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .body(Map.of("success", true, "data", data.get()));
+    }
+}
@@ -1,16 +1,31 @@
 package com.p_project.p_project_backend.backend_user.controller;
 
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryAnalysisStatusResponse;
+import com.p_project.p_project_backend.backend_user.service.DiaryAnalysisNotifier;
+import com.p_project.p_project_backend.backend_user.service.DiaryExportService;
+import com.p_project.p_project_backend.backend_user.service.DiaryIdempotencyService;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchService;
 import com.p_project.p_project_backend.backend_user.service.DiaryService;
+import com.p_project.p_project_backend.entity.Diary.AnalysisStatus;
 import com.p_project.p_project_backend.entity.Diary.Emotion;
 import com.p_project.p_project_backend.entity.User;
 import com.p_project.p_project_backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -20,59 +35,125 @@ import java.util.Map;
 public class DiaryController {
 
         private final DiaryService diaryService;
+        private final DiarySearchService diarySearchService;
+        private final DiaryExportService diaryExportService;
+        private final DiaryAnalysisNotifier diaryAnalysisNotifier;
+        private final DiaryIdempotencyService diaryIdempotencyService;
         private final UserRepository userRepository;
 
+        // 작성/수정은 AI 응답을 Non-blocking으로 기다리므로 Mono를 반환한다 (요청 스레드 즉시 반환)
+        // 재시도/더블 탭 대응: 같은 사용자·날짜의 진행 중인 작성은 하나로 합치고, Idempotency-Key가 있으면 성공 응답을 재사용한다
         @PostMapping
-        public ResponseEntity<?> createDiary(
+        public Mono<ResponseEntity<?>> createDiary(
                         @AuthenticationPrincipal UserDetails userDetails,
+                        @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                        @RequestParam(name = "async", defaultValue = "false") boolean async,
                         @RequestBody @jakarta.validation.Valid com.p_project.p_project_backend.backend_user.dto.diary.DiaryCreateRequest request) {
                 User user = getUser(userDetails);
-                return ResponseEntity.ok(Map.of(
+                return diaryIdempotencyService.execute(user, idempotencyKey, request, async,
+                                () -> async ? createPendingDiary(user, request) : createAnalyzedDiary(user, request));
+        }
+
+        private Mono<ResponseEntity<?>> createPendingDiary(User user,
+                        com.p_project.p_project_backend.backend_user.dto.diary.DiaryCreateRequest request) {
+                // PENDING 상태로 저장(분석 작업 등록 포함) 후 즉시 반환, 분석 결과는 /{diaryId}/analysis(또는 /stream)로 확인
+                return Mono.<ResponseEntity<?>>fromCallable(() -> ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
                                 "success", true,
-                                "data", diaryService.createDiary(user, request)));
+                                "data", diaryService.createPendingDiary(user, request))));
+        }
+
+        private Mono<ResponseEntity<?>> createAnalyzedDiary(User user,
+                        com.p_project.p_project_backend.backend_user.dto.diary.DiaryCreateRequest request) {
+                return diaryService.createDiary(user, request)
+                                .<ResponseEntity<?>>map(diary -> ResponseEntity.ok(Map.of(
+                                                "success", true,
+                                                "data", diary)));
         }
 
         @PutMapping("/{diaryId}")
-        public ResponseEntity<?> updateDiary(
+        public Mono<ResponseEntity<?>> updateDiary(
                         @AuthenticationPrincipal UserDetails userDetails,
                         @PathVariable Long diaryId,
                         @RequestBody @jakarta.validation.Valid com.p_project.p_project_backend.backend_user.dto.diary.DiaryUpdateRequest request) {
                 User user = getUser(userDetails);
-                return ResponseEntity.ok(Map.of(
-                                "success", true,
-                                "data", diaryService.updateDiary(user, diaryId, request)));
+                return diaryService.updateDiary(user, diaryId, request)
+                                .<ResponseEntity<?>>map(diary -> ResponseEntity.ok(Map.of(
+                                                "success", true,
+                                                "data", diary)));
         }
 
+        // 조회 API는 ETag를 내려주고, If-None-Match가 같으면 일기를 읽지 않고 304로 응답한다 (ConditionalResponses)
         @GetMapping("/{diaryId}")
         public ResponseEntity<?> getDiary(
+                        @AuthenticationPrincipal UserDetails userDetails,
+                        @PathVariable Long diaryId,
+                        ServletWebRequest webRequest) {
+                User user = getUser(userDetails);
+                return ConditionalResponses.okIfModified(webRequest, ConditionalResponses.diaryEtag(user),
+                                () -> diaryService.getDiary(user, diaryId));
+        }
+
+        @GetMapping("/{diaryId}/analysis")
+        public ResponseEntity<?> getAnalysisStatus(
                         @AuthenticationPrincipal UserDetails userDetails,
                         @PathVariable Long diaryId) {
                 User user = getUser(userDetails);
                 return ResponseEntity.ok(Map.of(
                                 "success", true,
-                                "data", diaryService.getDiary(user, diaryId)));
+                                "data", diaryService.getAnalysisStatus(user, diaryId)));
+        }
+
+        @GetMapping(value = "/{diaryId}/analysis/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter streamAnalysisStatus(
+                        @AuthenticationPrincipal UserDetails userDetails,
+                        @PathVariable Long diaryId) {
+                User user = getUser(userDetails);
+                DiaryAnalysisStatusResponse status = diaryService.getAnalysisStatus(user, diaryId);
+                if (!isPending(status)) {
+                        return diaryAnalysisNotifier.completed(status);
+                }
+
+                SseEmitter emitter = diaryAnalysisNotifier.subscribe(diaryId);
+                // 구독 직전에 분석이 끝났을 수 있으므로 구독 후 한 번 더 확인
+                DiaryAnalysisStatusResponse latest = diaryService.getAnalysisStatus(user, diaryId);
+                if (!isPending(latest)) {
+                        diaryAnalysisNotifier.publish(diaryId, latest);
+                }
+                return emitter;
         }
 
         @GetMapping("/date/{date}")
         public ResponseEntity<?> getDiaryByDate(
                         @AuthenticationPrincipal UserDetails userDetails,
-                        @PathVariable("date") String dateStr) {
+                        @PathVariable("date") String dateStr,
+                        ServletWebRequest webRequest) {
                 User user = getUser(userDetails);
                 LocalDate date = LocalDate.parse(dateStr);
-                return ResponseEntity.ok(Map.of(
-                                "success", true,
-                                "data", diaryService.getDiaryByDate(user, date)));
+                return ConditionalResponses.okIfModified(webRequest, ConditionalResponses.diaryEtag(user),
+                                () -> diaryService.getDiaryByDate(user, date));
         }
 
         @GetMapping("/calendar")
         public ResponseEntity<?> getMonthlyDiaries(
                         @AuthenticationPrincipal UserDetails userDetails,
                         @RequestParam("year") int year,
-                        @RequestParam("month") int month) {
+                        @RequestParam("month") int month,
+                        ServletWebRequest webRequest) {
                 User user = getUser(userDetails);
-                return ResponseEntity.ok(Map.of(
-                                "success", true,
-                                "data", diaryService.getMonthlyDiaries(user, year, month)));
+                return ConditionalResponses.okIfModified(webRequest, ConditionalResponses.diaryEtag(user),
+                                () -> diaryService.getMonthlyDiaries(user, year, month));
+        }
+
+        // 여러 달 캘린더 (예: /calendar/range?from=2025-01&to=2025-12)
+        @GetMapping("/calendar/range")
+        public ResponseEntity<?> getCalendarRange(
+                        @AuthenticationPrincipal UserDetails userDetails,
+                        @RequestParam("from") String from,
+                        @RequestParam("to") String to,
+                        ServletWebRequest webRequest) {
+                User user = getUser(userDetails);
+                return ConditionalResponses.okIfModified(webRequest, ConditionalResponses.diaryEtag(user),
+                                () -> diaryService.getCalendarRange(user, YearMonth.parse(from), YearMonth.parse(to)));
         }
 
         @GetMapping("/search")
@@ -82,11 +163,47 @@ public class DiaryController {
                         @RequestParam(required = false) LocalDate startDate,
                         @RequestParam(required = false) LocalDate endDate,
                         @RequestParam(required = false) List<Emotion> emotions,
+                        @RequestParam(defaultValue = DiarySearchService.SORT_DATE) String sort,
                         @RequestParam(defaultValue = "1") int page,
-                        @RequestParam(defaultValue = "10") int limit) {
+                        @RequestParam(defaultValue = "10") int limit,
+                        @RequestParam(defaultValue = "false") boolean withFacets) {
+                User user = getUser(userDetails);
+                return ResponseEntity.ok(Map.of("success", true, "data",
+                                diarySearchService.searchDiaries(user, keyword, startDate, endDate, emotions, sort,
+                                                page, limit, withFacets)));
+        }
+
+        // 무한 스크롤용 커서 검색 - 응답의 nextCursor를 다음 요청의 cursor로 넘긴다
+        @GetMapping("/search/cursor")
+        public ResponseEntity<?> scrollDiaries(
+                        @AuthenticationPrincipal UserDetails userDetails,
+                        @RequestParam(required = false) String keyword,
+                        @RequestParam(required = false) LocalDate startDate,
+                        @RequestParam(required = false) LocalDate endDate,
+                        @RequestParam(required = false) List<Emotion> emotions,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "10") int limit,
+                        @RequestParam(defaultValue = "false") boolean withTotal) {
                 User user = getUser(userDetails);
                 return ResponseEntity.ok(Map.of("success", true, "data",
-                                diaryService.searchDiaries(user, keyword, startDate, endDate, emotions, page, limit)));
+                                diarySearchService.scrollDiaries(user, keyword, startDate, endDate, emotions, cursor,
+                                                limit, withTotal)));
+        }
+
+        // 내 일기 내보내기 (format=ndjson|zip) - 만들면서 바로 내려보내므로 일기 수와 관계없이 메모리 사용량이 같다
+        @GetMapping("/export")
+        public ResponseEntity<StreamingResponseBody> exportDiaries(
+                        @AuthenticationPrincipal UserDetails userDetails,
+                        @RequestParam(defaultValue = "ndjson") String format) {
+                User user = getUser(userDetails);
+                DiaryExportService.Format exportFormat = DiaryExportService.Format.from(format);
+                return ResponseEntity.ok()
+                                .contentType(exportFormat.getMediaType())
+                                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                                .filename(exportFormat.fileName(LocalDate.now()))
+                                                .build()
+                                                .toString())
+                                .body(out -> diaryExportService.export(user, exportFormat, out));
         }
 
         @DeleteMapping("/{diaryId}")
@@ -100,6 +217,10 @@ public class DiaryController {
                                 "data", Map.of("message", "일기가 삭제되었습니다")));
         }
 
+        private boolean isPending(DiaryAnalysisStatusResponse status) {
+                return AnalysisStatus.PENDING.name().equals(status.getAnalysisStatus());
+        }
+
         private User getUser(UserDetails userDetails) {
                 return userRepository.findByEmail(userDetails.getUsername())
                                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -8,8 +8,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.util.Map;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/statistics")
@@ -24,20 +25,22 @@ public class StatisticsController {
             @RequestParam String period,
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer month,
-            @RequestParam(required = false) Integer week) {
+            @RequestParam(required = false) Integer week,
+            ServletWebRequest webRequest) {
         User user = getUser(userDetails);
-        return ResponseEntity
-                .ok(Map.of("success", true, "data", statsService.getEmotionStats(user, period, year, month, week)));
+        return ConditionalResponses.okIfModified(webRequest, ConditionalResponses.diaryEtag(user, LocalDate.now()),
+                () -> statsService.getEmotionStats(user, period, year, month, week));
     }
 
     @GetMapping("/emotion-trend")
     public ResponseEntity<?> getEmotionTrend(@AuthenticationPrincipal UserDetails userDetails,
             @RequestParam String period,
             @RequestParam(required = false) Integer year,
-            @RequestParam(required = false) Integer month) {
+            @RequestParam(required = false) Integer month,
+            ServletWebRequest webRequest) {
         User user = getUser(userDetails);
-        return ResponseEntity
-                .ok(Map.of("success", true, "data", statsService.getEmotionTrend(user, period, year, month)));
+        return ConditionalResponses.okIfModified(webRequest, ConditionalResponses.diaryEtag(user, LocalDate.now()),
+                () -> statsService.getEmotionTrend(user, period, year, month));
     }
 
     private User getUser(UserDetails userDetails) {
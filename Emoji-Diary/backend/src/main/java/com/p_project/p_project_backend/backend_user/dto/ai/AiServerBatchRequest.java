@@ -0,0 +1,12 @@
+package com.p_project.p_project_backend.backend_user.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class AiServerBatchRequest {
+    private List<AiServerRequest> items;
+}
@@ -0,0 +1,18 @@
+package com.p_project.p_project_backend.backend_user.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiServerBatchResponse {
+    private List<AiServerResponse> results; // items와 같은 순서, 실패한 항목은 error/detail만 채워짐
+    private String error;
+    private String detail;
+}
@@ -3,6 +3,7 @@ package com.p_project.p_project_backend.backend_user.dto.ai;
 import com.p_project.p_project_backend.entity.Diary.Weather;
 import com.p_project.p_project_backend.entity.User.Persona;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -13,4 +14,8 @@ public class AiServerRequest {
     private Weather weather;
     private Persona persona;
     private com.p_project.p_project_backend.entity.User.Gender gender;
+
+    // 작성자 (AI 서버로 보내지 않음) - 결과 캐시 키에 넣어, 생성된 이미지 파일을 다른 사용자의 일기와 공유하지 않는다
+    @JsonIgnore
+    private Long userId;
 }
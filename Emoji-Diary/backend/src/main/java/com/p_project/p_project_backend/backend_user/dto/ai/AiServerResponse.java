@@ -16,4 +16,6 @@ public class AiServerResponse {
     private String aiComment;
     private RecommendedFood recommendedFood;
     private String image; // Base64 string from AI Server
+    private String error; // 처리 실패 시 (AI 서버는 200으로 {error, detail}을 반환)
+    private String detail;
 }
@@ -17,4 +17,5 @@ public class AiServiceResult {
     private String emotion;
     private RecommendedFood recommendedFood;
     private String imageUrl; // Saved image URL
+    private boolean degraded; // AI 서버 장애 시 대체 결과 (재분석 필요)
 }
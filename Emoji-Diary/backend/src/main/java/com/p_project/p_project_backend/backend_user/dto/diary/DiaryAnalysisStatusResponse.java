@@ -0,0 +1,24 @@
+package com.p_project.p_project_backend.backend_user.dto.diary;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiaryAnalysisStatusResponse {
+    private Long diaryId;
+    private String analysisStatus; // PENDING, COMPLETED, FAILED, DEGRADED
+    private String imageStatus; // PENDING, READY, FAILED, NONE
+    private String emotion;
+    private String aiComment;
+    private String imageUrl; // AI Image
+    private String thumbnailUrl; // AI Image 썸네일 (없으면 imageUrl 사용)
+    private String mediumImageUrl; // AI Image 중간 크기 (없으면 imageUrl 사용)
+    private Object recommendedFood; // JSON parsed object
+}
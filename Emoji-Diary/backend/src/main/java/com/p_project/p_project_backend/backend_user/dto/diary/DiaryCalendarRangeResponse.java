@@ -0,0 +1,29 @@
+package com.p_project.p_project_backend.backend_user.dto.diary;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 여러 달 캘린더 (연간 보기 등)
+ * 달마다 일(day) 수만큼의 문자열로 압축해 내려준다. i번째 문자가 (i+1)일의 상태:
+ * '-' 일기 없음, '0'~'6' emotions[숫자]의 감정, '?' 분석 대기/실패 (감정 미확정)
+ * 예) "--0-3?---..." → 3일 행복, 5일 분노, 6일 분석 대기
+ */
+@Getter
+@Builder
+public class DiaryCalendarRangeResponse {
+    private String from; // yyyy-MM
+    private String to; // yyyy-MM
+    private List<String> emotions; // 감정 코드표 (숫자 → 감정)
+    private List<MonthDays> months;
+
+    @Getter
+    @AllArgsConstructor
+    public static class MonthDays {
+        private String month; // yyyy-MM
+        private String days;
+    }
+}
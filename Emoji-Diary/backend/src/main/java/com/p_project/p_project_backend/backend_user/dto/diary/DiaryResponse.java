@@ -26,9 +26,13 @@ public class DiaryResponse {
     private List<String> activities; // Not directly in Diary entity, might need separate table or JSON
     private List<String> images; // User images
     private String imageUrl; // AI Image
+    private String thumbnailUrl; // AI Image 썸네일 (없으면 imageUrl 사용)
+    private String mediumImageUrl; // AI Image 중간 크기 (없으면 imageUrl 사용)
     private String aiComment;
     private String persona; // Snapshot Persona
     private Object recommendedFood; // JSON parsed object
+    private String analysisStatus; // PENDING, COMPLETED, FAILED, DEGRADED
+    private String imageStatus; // PENDING, READY, FAILED, NONE
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
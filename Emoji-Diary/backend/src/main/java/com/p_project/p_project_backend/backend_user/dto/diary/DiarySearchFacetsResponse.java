@@ -0,0 +1,18 @@
+package com.p_project.p_project_backend.backend_user.dto.diary;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 검색 패싯 (현재 검색어와 기간 조건에서 감정별/월별 일기 수)
+ * 감정 필터는 적용하지 않은 개수이므로, 감정을 골라도 다른 감정의 개수를 그대로 보여줄 수 있다.
+ * emotions: 모든 감정을 정의 순서대로 (0개 포함), months: yyyy-MM 최신순 (일기가 있는 달만)
+ */
+@Getter
+@AllArgsConstructor
+public class DiarySearchFacetsResponse {
+    private Map<String, Long> emotions;
+    private Map<String, Long> months;
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Getter
 @Setter
@@ -17,7 +18,16 @@ public class DiarySearchResponse {
     private Long id;
     private LocalDate date;
     private String title;
-    private String content;
+    private String snippet; // 본문 미리보기 (첫 일치 위치 주변), 전체 본문은 상세 조회(GET /api/diaries/{id})
+    private List<Highlight> highlights; // snippet 안의 검색어 위치
     private String emotion;
     private String weather;
+
+    // snippet 기준 [start, end) 오프셋
+    @Getter
+    @AllArgsConstructor
+    public static class Highlight {
+        private int start;
+        private int end;
+    }
 }
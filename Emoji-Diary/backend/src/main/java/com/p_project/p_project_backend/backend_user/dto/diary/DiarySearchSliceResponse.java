@@ -0,0 +1,19 @@
+package com.p_project.p_project_backend.backend_user.dto.diary;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 커서(키셋) 방식 일기 검색 결과 (무한 스크롤)
+ * 다음 페이지는 nextCursor를 그대로 cursor로 넘긴다. total은 첫 페이지에서 withTotal=true일 때만 채워진다.
+ */
+@Getter
+@Builder
+public class DiarySearchSliceResponse {
+    private List<DiarySearchResponse> diaries;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long total;
+}
@@ -17,4 +17,7 @@ public class DiarySummaryResponse {
     private Long id;
     private LocalDate date;
     private String emotion;
+    private String analysisStatus;
+    private String imageStatus;
+    private String thumbnailUrl; // 캘린더 타일용 AI Image 썸네일
 }
@@ -0,0 +1,55 @@
+package com.p_project.p_project_backend.backend_user.repository;
+
+import com.p_project.p_project_backend.entity.AiJob;
+import com.p_project.p_project_backend.entity.Diary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AiJobRepository extends JpaRepository<AiJob, Long> {
+
+        Optional<AiJob> findByDiaryAndPhase(Diary diary, AiJob.Phase phase);
+
+        // 실행 가능한 작업 (대기 중이거나 할당이 만료된 작업)을 잠그며 조회
+        // SKIP LOCKED: 다른 노드가 잠근 행은 건너뛰므로 여러 노드가 같은 작업을 가져가지 않는다 (MariaDB 10.6+)
+        @Query(value = "SELECT * FROM ai_jobs " +
+                        "WHERE phase = :phase AND next_run_at <= :now " +
+                        "AND (status = 'QUEUED' OR (status = 'RUNNING' AND locked_until < :now)) " +
+                        "ORDER BY next_run_at " +
+                        "LIMIT :limit " +
+                        "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+        List<AiJob> lockClaimable(@Param("phase") String phase, @Param("now") LocalDateTime now,
+                        @Param("limit") int limit);
+
+        // 재시작한 노드가 종료 전에 할당받았던 작업을 바로 다시 실행할 수 있게 되돌림
+        @Modifying
+        @Query("UPDATE AiJob j SET j.status = com.p_project.p_project_backend.entity.AiJob.Status.QUEUED, " +
+                        "j.lockedBy = NULL, j.lockedUntil = NULL, j.nextRunAt = :now, j.version = j.version + 1 " +
+                        "WHERE j.status = com.p_project.p_project_backend.entity.AiJob.Status.RUNNING " +
+                        "AND j.lockedBy = :nodeId")
+        int releaseLeases(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+        // 단계별 대기 중(QUEUED) 작업 수 - 모든 노드가 공유하는 대기열 길이 (idx_ai_jobs_claim 사용)
+        @Query("SELECT COUNT(j) FROM AiJob j WHERE j.phase = :phase " +
+                        "AND j.status = com.p_project.p_project_backend.entity.AiJob.Status.QUEUED")
+        long countQueued(@Param("phase") AiJob.Phase phase);
+
+        // 작업 없이 분석 대기 상태로 남은 일기 (작업 대기열 도입 이전 데이터 등)
+        @Query("SELECT d FROM Diary d WHERE d.analysisStatus IN :statuses AND d.deletedAt IS NULL " +
+                        "AND NOT EXISTS (SELECT j FROM AiJob j WHERE j.diary = d " +
+                        "AND j.phase = com.p_project.p_project_backend.entity.AiJob.Phase.TEXT)")
+        List<Diary> findAnalysisPendingWithoutJob(@Param("statuses") Collection<Diary.AnalysisStatus> statuses);
+
+        @Query("SELECT d FROM Diary d WHERE d.imageStatus = com.p_project.p_project_backend.entity.Diary.ImageStatus.PENDING " +
+                        "AND d.analysisStatus = com.p_project.p_project_backend.entity.Diary.AnalysisStatus.COMPLETED " +
+                        "AND d.deletedAt IS NULL " +
+                        "AND NOT EXISTS (SELECT j FROM AiJob j WHERE j.diary = d " +
+                        "AND j.phase = com.p_project.p_project_backend.entity.AiJob.Phase.IMAGE)")
+        List<Diary> findImagePendingWithoutJob();
+}
@@ -0,0 +1,7 @@
+package com.p_project.p_project_backend.backend_user.repository;
+
+import com.p_project.p_project_backend.entity.AiResultCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AiResultCacheRepository extends JpaRepository<AiResultCacheEntry, String> {
+}
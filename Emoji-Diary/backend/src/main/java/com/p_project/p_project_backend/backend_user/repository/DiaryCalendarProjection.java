@@ -0,0 +1,21 @@
+package com.p_project.p_project_backend.backend_user.repository;
+
+import com.p_project.p_project_backend.entity.Diary.AnalysisStatus;
+import com.p_project.p_project_backend.entity.Diary.Emotion;
+import com.p_project.p_project_backend.entity.Diary.ImageStatus;
+
+import java.time.LocalDate;
+
+/**
+ * 캘린더 조회용 프로젝션 인터페이스
+ * 본문(content), AI 코멘트, 음식 추천 JSON 등 큰 컬럼은 읽지 않는다.
+ */
+public interface DiaryCalendarProjection {
+    Long getId();
+    LocalDate getDate();
+    Emotion getEmotion();
+    AnalysisStatus getAnalysisStatus();
+    ImageStatus getImageStatus();
+    String getImageUrl();
+    String getThumbnailUrl();
+}
@@ -0,0 +1,47 @@
+package com.p_project.p_project_backend.backend_user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 일기 활동/이미지 일괄 INSERT (JDBC batch)
+ * DiaryActivity/DiaryImage는 IDENTITY 키라서 Hibernate가 INSERT를 batch로 묶지 못하고 행마다 왕복한다.
+ * 저장 직후 자식 엔티티를 다시 쓰지 않으므로 생성 키를 돌려받지 않고 JdbcTemplate batch로 한 번에 보낸다.
+ * JPA 트랜잭션과 같은 커넥션을 사용하므로 부모 일기가 flush된 뒤에 호출해야 한다 (FK).
+ */
+@Repository
+@RequiredArgsConstructor
+public class DiaryContentBatchRepository {
+
+    private static final String INSERT_ACTIVITY_SQL =
+            "INSERT INTO diary_activities (diary_id, activity, created_at) VALUES (?, ?, ?)";
+    private static final String INSERT_IMAGE_SQL =
+            "INSERT INTO diary_images (diary_id, image_url, created_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertActivities(Long diaryId, List<String> activities, LocalDateTime createdAt) {
+        insertAll(INSERT_ACTIVITY_SQL, diaryId, activities, createdAt);
+    }
+
+    public void insertImages(Long diaryId, List<String> imageUrls, LocalDateTime createdAt) {
+        insertAll(INSERT_IMAGE_SQL, diaryId, imageUrls, createdAt);
+    }
+
+    private void insertAll(String sql, Long diaryId, List<String> values, LocalDateTime createdAt) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(sql, values, values.size(), (ps, value) -> {
+            ps.setLong(1, diaryId);
+            ps.setString(2, value);
+            ps.setTimestamp(3, timestamp);
+        });
+    }
+}
@@ -5,12 +5,14 @@ import com.p_project.p_project_backend.entity.Diary.Emotion;
 import com.p_project.p_project_backend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,11 +20,207 @@ import java.util.Optional;
 public interface DiaryRepository extends JpaRepository<Diary, Long> {
         Optional<Diary> findByUserAndDate(User user, LocalDate date);
 
+        /**
+         * 일기 상세 조회 (활동/이미지 포함, 한 번의 쿼리)
+         * 작성자 조건을 WHERE에 포함하므로 다른 사용자의 일기는 조회되지 않는다 (User 프록시 초기화 없음).
+         */
+        @Query("SELECT d FROM Diary d " +
+                        "LEFT JOIN FETCH d.activities " +
+                        "LEFT JOIN FETCH d.images " +
+                        "WHERE d.id = :id AND d.user = :user")
+        Optional<Diary> findDetailByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+        @Query("SELECT d FROM Diary d " +
+                        "LEFT JOIN FETCH d.activities " +
+                        "LEFT JOIN FETCH d.images " +
+                        "WHERE d.user = :user AND d.date = :date")
+        Optional<Diary> findDetailByUserAndDate(@Param("user") User user, @Param("date") LocalDate date);
+
         List<Diary> findByUserAndDateBetweenAndDeletedAtIsNull(User user, LocalDate startDate, LocalDate endDate);
 
         List<Diary> findByUserAndDateBetweenAndDeletedAtIsNullOrderByDateDesc(User user, LocalDate startDate,
                         LocalDate endDate);
 
+        /**
+         * 캘린더 조회 (필요한 컬럼만, 날짜순)
+         */
+        @Query("SELECT d.id AS id, d.date AS date, d.emotion AS emotion, " +
+                        "d.analysisStatus AS analysisStatus, d.imageStatus AS imageStatus, " +
+                        "d.imageUrl AS imageUrl, d.thumbnailUrl AS thumbnailUrl " +
+                        "FROM Diary d " +
+                        "WHERE d.user = :user AND d.deletedAt IS NULL " +
+                        "AND d.date BETWEEN :startDate AND :endDate " +
+                        "ORDER BY d.date")
+        List<DiaryCalendarProjection> findCalendarByUserAndDateBetween(@Param("user") User user,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        /**
+         * 사용자별 검색 색인 생성 (DiarySearchIndex)
+         */
+        @Query("SELECT d.id AS id, d.date AS date, d.emotion AS emotion, d.title AS title, d.content AS content " +
+                        "FROM Diary d WHERE d.user.id = :userId AND d.deletedAt IS NULL")
+        List<DiarySearchIndexProjection> findSearchIndexSource(@Param("userId") Long userId);
+
+        /**
+         * 색인 검색 후보 확인 (DiarySearchIndex) - 후보 중 검색어 전체를 포함하는 일기 id (LIKE 검색과 같은 조건)
+         * 제목/본문은 DB 안에서만 비교하고 id만 돌려받는다.
+         */
+        @Query("SELECT d.id FROM Diary d WHERE d.user.id = :userId AND d.id IN :ids " +
+                        "AND (d.content LIKE %:keyword% OR d.title LIKE %:keyword%)")
+        List<Long> findIdsContainingKeyword(@Param("userId") Long userId,
+                        @Param("ids") Collection<Long> ids,
+                        @Param("keyword") String keyword);
+
+        List<Diary> findByUserAndIdIn(User user, Collection<Long> ids);
+
+        /**
+         * 내보내기 - (date, id) 순으로 커서 다음 일기 id (키셋, OFFSET 없음)
+         */
+        @Query("SELECT d.id FROM Diary d WHERE d.user = :user AND d.deletedAt IS NULL " +
+                        "AND (d.date > :afterDate OR (d.date = :afterDate AND d.id > :afterId)) " +
+                        "ORDER BY d.date, d.id")
+        List<Long> findExportIds(@Param("user") User user,
+                        @Param("afterDate") LocalDate afterDate,
+                        @Param("afterId") Long afterId,
+                        Pageable pageable);
+
+        /**
+         * 내보내기 - 일기 + 활동 + 이미지를 한 번에 (fetch join은 LIMIT과 함께 쓸 수 없어 id로 나눠 읽는다)
+         */
+        @Query("SELECT DISTINCT d FROM Diary d " +
+                        "LEFT JOIN FETCH d.activities " +
+                        "LEFT JOIN FETCH d.images " +
+                        "WHERE d.id IN :ids " +
+                        "ORDER BY d.date, d.id")
+        List<Diary> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+        /**
+         * FULLTEXT 검색 (idx_diaries_title_content, BOOLEAN MODE)
+         * MATCH는 인덱스로 후보 행만 좁히고, 결과는 LIKE 검색과 같도록 검색어 전체의 부분 문자열 포함을 다시 확인한다.
+         * 기간/감정 조건은 호출 측에서 항상 채워서 넘긴다 (네이티브 쿼리에서 null/빈 IN 목록 회피).
+         * byRelevance가 true면 관련도순, 아니면 최신순으로 정렬한다.
+         */
+        @Query(value = "SELECT d.* FROM diaries d " +
+                        "WHERE d.user_id = :userId AND d.deleted_at IS NULL " +
+                        "AND MATCH(d.title, d.content) AGAINST (:query IN BOOLEAN MODE) " +
+                        "AND (d.title LIKE CONCAT('%', :keyword, '%') OR d.content LIKE CONCAT('%', :keyword, '%')) " +
+                        "AND d.date BETWEEN :startDate AND :endDate " +
+                        "AND d.emotion IN (:emotions) " +
+                        "ORDER BY CASE WHEN :byRelevance THEN MATCH(d.title, d.content) AGAINST (:query IN BOOLEAN MODE) " +
+                        "ELSE 0 END DESC, d.date DESC",
+                        countQuery = "SELECT COUNT(*) FROM diaries d " +
+                                        "WHERE d.user_id = :userId AND d.deleted_at IS NULL " +
+                                        "AND MATCH(d.title, d.content) AGAINST (:query IN BOOLEAN MODE) " +
+                                        "AND (d.title LIKE CONCAT('%', :keyword, '%') OR d.content LIKE CONCAT('%', :keyword, '%')) " +
+                                        "AND d.date BETWEEN :startDate AND :endDate " +
+                                        "AND d.emotion IN (:emotions)",
+                        nativeQuery = true)
+        Page<Diary> searchDiariesFulltext(@Param("userId") Long userId,
+                        @Param("query") String query,
+                        @Param("keyword") String keyword,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("emotions") List<String> emotions,
+                        @Param("byRelevance") boolean byRelevance,
+                        Pageable pageable);
+
+        /**
+         * FULLTEXT 검색 - 커서(키셋) 방식
+         * (date, id) 기준 최신순으로 커서 다음 행부터 읽는다. OFFSET과 COUNT가 없어 깊은 페이지도 비용이 같다.
+         * 첫 페이지는 커서에 최대값(MAX_DATE, Long.MAX_VALUE)을 넘긴다.
+         */
+        @Query(value = "SELECT d.* FROM diaries d " +
+                        "WHERE d.user_id = :userId AND d.deleted_at IS NULL " +
+                        "AND MATCH(d.title, d.content) AGAINST (:query IN BOOLEAN MODE) " +
+                        "AND (d.title LIKE CONCAT('%', :keyword, '%') OR d.content LIKE CONCAT('%', :keyword, '%')) " +
+                        "AND d.date BETWEEN :startDate AND :endDate " +
+                        "AND d.emotion IN (:emotions) " +
+                        "AND (d.date < :cursorDate OR (d.date = :cursorDate AND d.id < :cursorId)) " +
+                        "ORDER BY d.date DESC, d.id DESC",
+                        nativeQuery = true)
+        Slice<Diary> scrollDiariesFulltext(@Param("userId") Long userId,
+                        @Param("query") String query,
+                        @Param("keyword") String keyword,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("emotions") List<String> emotions,
+                        @Param("cursorDate") LocalDate cursorDate,
+                        @Param("cursorId") Long cursorId,
+                        Pageable pageable);
+
+        @Query(value = "SELECT COUNT(*) FROM diaries d " +
+                        "WHERE d.user_id = :userId AND d.deleted_at IS NULL " +
+                        "AND MATCH(d.title, d.content) AGAINST (:query IN BOOLEAN MODE) " +
+                        "AND (d.title LIKE CONCAT('%', :keyword, '%') OR d.content LIKE CONCAT('%', :keyword, '%')) " +
+                        "AND d.date BETWEEN :startDate AND :endDate " +
+                        "AND d.emotion IN (:emotions)",
+                        nativeQuery = true)
+        long countDiariesFulltext(@Param("userId") Long userId,
+                        @Param("query") String query,
+                        @Param("keyword") String keyword,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("emotions") List<String> emotions);
+
+        /**
+         * 검색 패싯 - 검색어/기간 조건의 (연, 월, 감정)별 개수 (감정 필터는 적용하지 않는다)
+         */
+        @Query(value = "SELECT YEAR(d.date) AS diaryYear, MONTH(d.date) AS diaryMonth, d.emotion AS emotion, " +
+                        "COUNT(*) AS diaryCount FROM diaries d " +
+                        "WHERE d.user_id = :userId AND d.deleted_at IS NULL " +
+                        "AND MATCH(d.title, d.content) AGAINST (:query IN BOOLEAN MODE) " +
+                        "AND (d.title LIKE CONCAT('%', :keyword, '%') OR d.content LIKE CONCAT('%', :keyword, '%')) " +
+                        "AND d.date BETWEEN :startDate AND :endDate " +
+                        "GROUP BY YEAR(d.date), MONTH(d.date), d.emotion",
+                        nativeQuery = true)
+        List<DiarySearchFacetProjection> countFacetsFulltext(@Param("userId") Long userId,
+                        @Param("query") String query,
+                        @Param("keyword") String keyword,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        @Query("SELECT YEAR(d.date) AS diaryYear, MONTH(d.date) AS diaryMonth, d.emotion AS emotion, " +
+                        "COUNT(d) AS diaryCount FROM Diary d WHERE d.user = :user " +
+                        "AND d.deletedAt IS NULL " +
+                        "AND (:keyword IS NULL OR d.content LIKE %:keyword% OR d.title LIKE %:keyword%) " +
+                        "AND d.date BETWEEN :startDate AND :endDate " +
+                        "GROUP BY YEAR(d.date), MONTH(d.date), d.emotion")
+        List<DiarySearchFacetProjection> countFacets(@Param("user") User user,
+                        @Param("keyword") String keyword,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        /**
+         * LIKE 검색 - 커서(키셋) 방식 (검색어가 없거나 색인되지 않는 짧은 단어뿐인 경우)
+         */
+        @Query("SELECT d FROM Diary d WHERE d.user = :user " +
+                        "AND d.deletedAt IS NULL " +
+                        "AND (:keyword IS NULL OR d.content LIKE %:keyword% OR d.title LIKE %:keyword%) " +
+                        "AND d.date BETWEEN :startDate AND :endDate " +
+                        "AND d.emotion IN :emotions " +
+                        "AND (d.date < :cursorDate OR (d.date = :cursorDate AND d.id < :cursorId)) " +
+                        "ORDER BY d.date DESC, d.id DESC")
+        Slice<Diary> scrollDiaries(@Param("user") User user,
+                        @Param("keyword") String keyword,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("emotions") List<Emotion> emotions,
+                        @Param("cursorDate") LocalDate cursorDate,
+                        @Param("cursorId") Long cursorId,
+                        Pageable pageable);
+
+        @Query("SELECT COUNT(d) FROM Diary d WHERE d.user = :user " +
+                        "AND d.deletedAt IS NULL " +
+                        "AND (:keyword IS NULL OR d.content LIKE %:keyword% OR d.title LIKE %:keyword%) " +
+                        "AND d.date BETWEEN :startDate AND :endDate " +
+                        "AND d.emotion IN :emotions")
+        long countDiaries(@Param("user") User user,
+                        @Param("keyword") String keyword,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("emotions") List<Emotion> emotions);
+
         @Query("SELECT d FROM Diary d WHERE d.user = :user " +
                         "AND d.deletedAt IS NULL " +
                         "AND (:keyword IS NULL OR d.content LIKE %:keyword% OR d.title LIKE %:keyword%) " +
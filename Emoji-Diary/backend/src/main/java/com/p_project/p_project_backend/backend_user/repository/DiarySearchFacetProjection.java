@@ -0,0 +1,14 @@
+package com.p_project.p_project_backend.backend_user.repository;
+
+import com.p_project.p_project_backend.entity.Diary.Emotion;
+
+/**
+ * 검색 패싯 집계용 프로젝션 (연, 월, 감정별 일기 수)
+ * 한 번의 GROUP BY 결과를 감정별/월별 개수로 나눠 합산한다.
+ */
+public interface DiarySearchFacetProjection {
+    Integer getDiaryYear();
+    Integer getDiaryMonth();
+    Emotion getEmotion();
+    Long getDiaryCount();
+}
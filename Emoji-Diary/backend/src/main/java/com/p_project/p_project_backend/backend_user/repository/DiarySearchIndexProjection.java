@@ -0,0 +1,16 @@
+package com.p_project.p_project_backend.backend_user.repository;
+
+import com.p_project.p_project_backend.entity.Diary.Emotion;
+
+import java.time.LocalDate;
+
+/**
+ * 사용자별 검색 색인 생성용 프로젝션 인터페이스 (AI 코멘트, 음식 추천 JSON 등은 읽지 않음)
+ */
+public interface DiarySearchIndexProjection {
+    Long getId();
+    LocalDate getDate();
+    Emotion getEmotion();
+    String getTitle();
+    String getContent();
+}
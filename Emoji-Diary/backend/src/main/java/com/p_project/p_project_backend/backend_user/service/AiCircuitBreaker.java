@@ -0,0 +1,159 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * AI 서버 호출용 서킷 브레이커 (단계별 1개)
+ * - CLOSED: 최근 windowSize개 호출의 실패율이 임계치를 넘으면 OPEN
+ * - OPEN: openDuration 동안 호출을 바로 거절하고, 이후 첫 요청에서 HALF_OPEN
+ * - HALF_OPEN: halfOpenCalls개만 시험 호출을 허용하여 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN
+ */
+@Slf4j
+public class AiCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String phase;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final MeterRegistry meterRegistry;
+
+    // 최근 호출 결과 (원형 버퍼, true = 실패)
+    private final boolean[] window;
+    private int windowIndex;
+    private int recordedCalls;
+    private int failedCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    public AiCircuitBreaker(String phase, int windowSize, int minimumCalls, double failureRateThreshold,
+            Duration openDuration, int halfOpenCalls, MeterRegistry meterRegistry) {
+        this.phase = phase;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.meterRegistry = meterRegistry;
+        this.window = new boolean[windowSize];
+
+        Gauge.builder("ai.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("AI 서킷 상태 (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 호출 허용 여부. 허용된 호출은 반드시 onSuccess/onFailure/onIgnored 중 하나로 끝내야 한다.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight + halfOpenSucceeded >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            halfOpenSucceeded++;
+            if (halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            transitionTo(State.OPEN);
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumCalls && (double) failedCalls / recordedCalls >= failureRateThreshold) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * 결과를 판단할 수 없는 종료 (요청 취소 등) - 시험 호출 슬롯만 반납한다
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == windowSize) {
+            if (window[windowIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+    }
+
+    private void transitionTo(State next) {
+        State previous = state;
+        state = next;
+        switch (next) {
+            case OPEN -> openedAt = System.nanoTime();
+            case HALF_OPEN -> {
+                halfOpenInFlight = 0;
+                halfOpenSucceeded = 0;
+            }
+            case CLOSED -> {
+                windowIndex = 0;
+                recordedCalls = 0;
+                failedCalls = 0;
+            }
+        }
+
+        log.warn("AI 서킷 상태 변경 phase={}: {} -> {}", phase, previous, next);
+        Counter.builder("ai.circuit.transitions")
+                .description("AI 서킷 상태 전이 횟수")
+                .tag("phase", phase)
+                .tag("from", previous.name())
+                .tag("to", next.name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
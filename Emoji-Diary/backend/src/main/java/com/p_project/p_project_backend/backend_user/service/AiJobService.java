@@ -0,0 +1,159 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.backend_user.repository.AiJobRepository;
+import com.p_project.p_project_backend.entity.AiJob;
+import com.p_project.p_project_backend.entity.AiJob.Phase;
+import com.p_project.p_project_backend.entity.AiJob.Status;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.Diary.AnalysisStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * DB(ai_jobs) 기반 AI 작업 대기열
+ * - 등록: 일기 저장과 같은 트랜잭션에서 등록하므로 저장된 일기의 분석 작업이 유실되지 않는다.
+ * - 할당: SELECT ... FOR UPDATE SKIP LOCKED로 잠근 뒤 RUNNING + 할당 만료 시각(lease)을 기록한다.
+ *   노드가 죽어 완료되지 못한 작업은 lease가 지나면 다른 워커가 다시 가져간다.
+ * - 재시도: 지수 백오프(+지터), 최대 시도 횟수를 넘으면 호출자가 실패 처리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AiJobService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final AiJobRepository aiJobRepository;
+
+    @Value("${diary.jobs.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Value("${diary.jobs.lease:5m}")
+    private Duration lease;
+
+    @Value("${diary.jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${diary.jobs.backoff-base:10s}")
+    private Duration backoffBase;
+
+    @Value("${diary.jobs.backoff-max:10m}")
+    private Duration backoffMax;
+
+    /**
+     * 호출한 트랜잭션 안에서 작업을 등록한다. 같은 일기·단계의 작업이 이미 있으면 새 요청으로 덮어쓴다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Diary diary, Phase phase, Duration delay) {
+        LocalDateTime now = LocalDateTime.now();
+        AiJob job = aiJobRepository.findByDiaryAndPhase(diary, phase)
+                .orElseGet(() -> AiJob.builder()
+                        .diary(diary)
+                        .phase(phase)
+                        .createdAt(now)
+                        .build());
+
+        // 실행 중인 작업을 덮어쓰면 version이 바뀌어 이전 실행의 완료 처리가 이 요청을 지우지 않는다
+        job.setStatus(Status.QUEUED);
+        job.setAttempts(0);
+        job.setNextRunAt(now.plus(delay));
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+        job.setLastError(null);
+        job.setUpdatedAt(now);
+        aiJobRepository.save(job);
+    }
+
+    public List<AiJob> claim(Phase phase, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AiJob> jobs = aiJobRepository.lockClaimable(phase.name(), now, limit);
+        for (AiJob job : jobs) {
+            job.setStatus(Status.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLockedBy(nodeId);
+            job.setLockedUntil(now.plus(lease));
+            job.setUpdatedAt(now);
+            // 워커 스레드에서 일기 ID를 쓰므로 미리 꺼내 둔다 (프록시 ID 조회는 초기화 없이 가능)
+            job.getDiary().getId();
+        }
+        return jobs;
+    }
+
+    @Transactional(readOnly = true)
+    public long countQueued(Phase phase) {
+        return aiJobRepository.countQueued(phase);
+    }
+
+    /**
+     * 완료된 작업 삭제. 실행 중 다시 등록되었다면 낙관적 잠금 예외가 발생하며, 호출자는 무시하면 된다.
+     */
+    public void complete(AiJob job) {
+        aiJobRepository.delete(job);
+    }
+
+    /**
+     * 실패한 작업을 백오프 후 다시 실행하도록 등록한다.
+     *
+     * @return 재시도 예정이면 true, 최대 시도 횟수를 넘어 작업을 삭제했으면 false
+     */
+    public boolean retry(AiJob job, Throwable error) {
+        if (job.getAttempts() >= maxAttempts) {
+            aiJobRepository.delete(job);
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        job.setStatus(Status.QUEUED);
+        job.setNextRunAt(now.plus(backoff(job.getAttempts())));
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+        job.setLastError(truncate(String.valueOf(error.getMessage())));
+        job.setUpdatedAt(now);
+        aiJobRepository.save(job);
+        return true;
+    }
+
+    /**
+     * 애플리케이션 시작 시 복구
+     * 1) 이 노드가 종료 전에 할당받았던 작업을 즉시 재실행 대상으로 되돌림 (lease 만료를 기다리지 않음)
+     * 2) 작업 없이 분석/이미지 대기 상태로 남은 일기에 작업을 등록
+     */
+    public void recover() {
+        int released = aiJobRepository.releaseLeases(nodeId, LocalDateTime.now());
+
+        List<Diary> analysisPending = aiJobRepository.findAnalysisPendingWithoutJob(
+                EnumSet.of(AnalysisStatus.PENDING, AnalysisStatus.DEGRADED));
+        analysisPending.forEach(diary -> enqueue(diary, Phase.TEXT, Duration.ZERO));
+
+        List<Diary> imagePending = aiJobRepository.findImagePendingWithoutJob();
+        imagePending.forEach(diary -> enqueue(diary, Phase.IMAGE, Duration.ZERO));
+
+        if (released + analysisPending.size() + imagePending.size() > 0) {
+            log.info("AI 작업 대기열 복구: 할당 해제 {}건, 분석 작업 등록 {}건, 이미지 작업 등록 {}건",
+                    released, analysisPending.size(), imagePending.size());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        // base * 2^(attempts-1), 최대 backoffMax, ±20% 지터 (여러 작업이 같은 시각에 몰리지 않도록)
+        long exponential = backoffBase.toMillis() << Math.min(attempts - 1, 20);
+        long capped = Math.min(exponential, backoffMax.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+
+    private String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,119 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerRequest;
+import com.p_project.p_project_backend.exception.AiUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * AI 호출 단계별 계측
+ * - ai.phase.duration (Timer, 히스토그램): 단계별 소요 시간
+ *   text: 텍스트 분석 (네트워크 + 추론, 배칭 대기 포함)
+ *   image: 이미지 단계 전체, image_inference: 요청부터 첫 응답 바이트까지 (네트워크 + 생성)
+ *   image_download: 응답 본문 수신, image_decode: JSON 파싱 + Base64 디코딩, image_write: 디스크 기록
+ * - ai.payload.size (DistributionSummary, bytes): text_request/image_request(일기 본문), image_response(응답 JSON), image_file(저장된 이미지)
+ * 태그: phase, persona, operation(create/update/job/reanalysis), outcome(success/error/timeout/rejected/cancelled)
+ * operation은 호출자가 Reactor Context로 넘긴다 (operation(...) 참고).
+ */
+@Component
+@RequiredArgsConstructor
+public class AiMetrics {
+
+    public enum Operation {
+        CREATE, // 일기 작성 (동기 분석)
+        UPDATE, // 일기 수정
+        JOB, // AI 작업 대기열 (비동기 작성, 재분석 대기, 이미지 생성)
+        REANALYSIS, // 관리자 일괄 재분석
+        UNKNOWN
+    }
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+    private static final String OUTCOME_TIMEOUT = "timeout";
+    private static final String OUTCOME_REJECTED = "rejected";
+    private static final String OUTCOME_CANCELLED = "cancelled";
+
+    private static final String OPERATION_KEY = AiMetrics.class.getName() + ".operation";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 호출 경로 지정: aiService.analyzeTextAsync(...).contextWrite(AiMetrics.operation(Operation.CREATE))
+     */
+    public static Function<Context, Context> operation(Operation operation) {
+        return context -> context.put(OPERATION_KEY, operation);
+    }
+
+    /**
+     * 구독 시점의 요청/호출 경로 태그. 하위 단계(디코딩, 디스크 기록 등)를 따로 기록할 때 사용한다.
+     */
+    public Tags tags(AiServerRequest request, ContextView context) {
+        Operation operation = context.getOrDefault(OPERATION_KEY, Operation.UNKNOWN);
+        return Tags.of(
+                "persona", request.getPersona() != null ? request.getPersona().name() : "none",
+                "operation", operation.name().toLowerCase());
+    }
+
+    /**
+     * source의 구독부터 종료(성공/에러/취소)까지를 phase로 기록한다.
+     */
+    public <T> Mono<T> timed(String phase, AiServerRequest request, Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            Tags tags = tags(request, context);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicReference<String> outcome = new AtomicReference<>(OUTCOME_CANCELLED);
+            return source
+                    .doOnSuccess(result -> outcome.set(OUTCOME_SUCCESS))
+                    .doOnError(e -> outcome.set(outcomeOf(e)))
+                    .doFinally(signal -> sample.stop(timer(phase, tags, outcome.get())));
+        });
+    }
+
+    public void record(String phase, Tags tags, long nanos, String outcome) {
+        timer(phase, tags, outcome).record(Duration.ofNanos(nanos));
+    }
+
+    public void recordPayload(String phase, Tags tags, long bytes) {
+        DistributionSummary.builder("ai.payload.size")
+                .description("AI 요청/응답 크기")
+                .baseUnit("bytes")
+                .tags(tags)
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    private Timer timer(String phase, Tags tags, String outcome) {
+        return Timer.builder("ai.phase.duration")
+                .description("AI 호출 단계별 소요 시간")
+                .tags(tags)
+                .tag("phase", phase)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(2))
+                .register(meterRegistry);
+    }
+
+    private static String outcomeOf(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return OUTCOME_TIMEOUT;
+        }
+        if (error instanceof AiUnavailableException) {
+            return OUTCOME_REJECTED;
+        }
+        return OUTCOME_ERROR;
+    }
+}
@@ -0,0 +1,148 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.exception.AiUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * AI 서버 호출 보호 계층
+ * 단계(텍스트 분석/이미지 생성)마다 아래를 적용한다.
+ * - 벌크헤드: 동시 호출 수 제한, 초과 시 대기하지 않고 바로 거절
+ * - 응답 시한: 단계별 timeout, 초과 시 진행 중인 요청을 취소
+ * - 서킷 브레이커: 실패율이 높으면 일정 시간 호출 자체를 막음 (AiCircuitBreaker)
+ * 거절된 호출은 AiUnavailableException으로 끝나며, 대체 결과 처리는 호출자가 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AiResilience {
+
+    public enum Phase {
+        TEXT, IMAGE
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.resilience.text.max-concurrent:16}")
+    private int textMaxConcurrent;
+
+    @Value("${ai.resilience.text.timeout:15s}")
+    private Duration textTimeout;
+
+    @Value("${ai.resilience.image.max-concurrent:4}")
+    private int imageMaxConcurrent;
+
+    @Value("${ai.resilience.image.timeout:90s}")
+    private Duration imageTimeout;
+
+    @Value("${ai.resilience.circuit.window-size:20}")
+    private int windowSize;
+
+    @Value("${ai.resilience.circuit.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${ai.resilience.circuit.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${ai.resilience.circuit.open-duration:30s}")
+    private Duration openDuration;
+
+    @Value("${ai.resilience.circuit.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    private final Map<Phase, PhaseGuard> guards = new EnumMap<>(Phase.class);
+
+    @PostConstruct
+    void init() {
+        guards.put(Phase.TEXT, new PhaseGuard(Phase.TEXT, textMaxConcurrent, textTimeout));
+        guards.put(Phase.IMAGE, new PhaseGuard(Phase.IMAGE, imageMaxConcurrent, imageTimeout));
+    }
+
+    public <T> Mono<T> guard(Phase phase, Supplier<Mono<T>> call) {
+        PhaseGuard guard = guards.get(phase);
+        return Mono.defer(() -> {
+            if (!guard.circuitBreaker.tryAcquire()) {
+                guard.rejectedByCircuit.increment();
+                return Mono.error(new AiUnavailableException("AI 서버 호출이 일시적으로 차단되었습니다 (circuit open)"));
+            }
+            if (!guard.bulkhead.tryAcquire()) {
+                guard.circuitBreaker.onIgnored();
+                guard.rejectedByBulkhead.increment();
+                return Mono.error(new AiUnavailableException("AI 서버 동시 호출 한도를 초과했습니다 (bulkhead full)"));
+            }
+
+            // 성공/실패/취소 중 먼저 도착한 신호 하나만 서킷에 기록한다
+            AtomicBoolean settled = new AtomicBoolean();
+            return Mono.defer(call)
+                    .timeout(guard.timeout)
+                    .doOnSuccess(result -> {
+                        if (settled.compareAndSet(false, true)) {
+                            guard.circuitBreaker.onSuccess();
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (settled.compareAndSet(false, true)) {
+                            guard.circuitBreaker.onFailure();
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (settled.compareAndSet(false, true)) {
+                            guard.circuitBreaker.onIgnored();
+                        }
+                        guard.bulkhead.release();
+                    });
+        });
+    }
+
+    /**
+     * 서킷이 열려 있지 않은지 (재분석 등 미뤄도 되는 작업을 시작해도 되는지)
+     */
+    public boolean isAvailable(Phase phase) {
+        return guards.get(phase).circuitBreaker.getState() != AiCircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * 단계별 동시 호출 한도 (배경 작업이 AI 처리량 중 일부만 쓰도록 나눌 때 기준)
+     */
+    public int maxConcurrent(Phase phase) {
+        return phase == Phase.TEXT ? textMaxConcurrent : imageMaxConcurrent;
+    }
+
+    private class PhaseGuard {
+        private final Semaphore bulkhead;
+        private final Duration timeout;
+        private final AiCircuitBreaker circuitBreaker;
+        private final Counter rejectedByCircuit;
+        private final Counter rejectedByBulkhead;
+
+        PhaseGuard(Phase phase, int maxConcurrent, Duration timeout) {
+            String tag = phase.name().toLowerCase();
+            this.bulkhead = new Semaphore(maxConcurrent);
+            this.timeout = timeout;
+            this.circuitBreaker = new AiCircuitBreaker(tag, windowSize, minimumCalls, failureRateThreshold,
+                    openDuration, halfOpenCalls, meterRegistry);
+            this.rejectedByCircuit = Counter.builder("ai.calls.rejected")
+                    .tag("phase", tag).tag("reason", "circuit_open")
+                    .register(meterRegistry);
+            this.rejectedByBulkhead = Counter.builder("ai.calls.rejected")
+                    .tag("phase", tag).tag("reason", "bulkhead_full")
+                    .register(meterRegistry);
+            Gauge.builder("ai.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .description("AI 서버 동시 호출 여유 슬롯")
+                    .tag("phase", tag)
+                    .register(meterRegistry);
+        }
+    }
+}
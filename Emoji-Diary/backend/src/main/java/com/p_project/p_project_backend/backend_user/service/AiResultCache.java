@@ -0,0 +1,256 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerRequest;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServiceResult;
+import com.p_project.p_project_backend.backend_user.dto.ai.RecommendedFood;
+import com.p_project.p_project_backend.backend_user.repository.AiResultCacheRepository;
+import com.p_project.p_project_backend.entity.AiResultCacheEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AI 분석 결과 캐시
+ * 같은 사용자의 같은 (content, weather, persona, gender) 요청은 감정 분석/이미지 생성을 다시 하지 않고 저장된 결과를 돌려준다.
+ * 텍스트 분석 결과가 먼저 저장되고, 이미지는 생성 단계가 끝난 뒤 attachImage로 채워진다.
+ * 키에 사용자를 넣어 캐시된 이미지 파일(과 축소본)이 한 사용자의 일기끼리만 공유되게 한다.
+ * (다른 사용자의 일기 삭제 시 파일을 정리해도 영향이 없도록)
+ * - 메모리 계층: 크기 제한 LRU (ai.cache.max-entries)
+ * - 영속 계층: ai_result_cache 테이블 (ai.cache.persistent.enabled=true 일 때만 사용)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiResultCache {
+
+    private static final String TIER_MEMORY = "memory";
+    private static final String TIER_PERSISTENT = "persistent";
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final AiResultCacheRepository aiResultCacheRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler aiIoScheduler;
+
+    @Value("${ai.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${ai.cache.persistent.enabled:false}")
+    private boolean persistentEnabled;
+
+    private Map<String, AiServiceResult> entries;
+    private Counter memoryHits;
+    private Counter persistentHits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        // accessOrder=true: 조회 시 최근 사용으로 이동, 용량 초과 시 가장 오래 사용하지 않은 항목 제거
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AiServiceResult> eldest) {
+                boolean evict = size() > maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+
+        memoryHits = Counter.builder("ai.cache.requests").tag("result", "hit").tag("tier", TIER_MEMORY)
+                .register(meterRegistry);
+        persistentHits = Counter.builder("ai.cache.requests").tag("result", "hit").tag("tier", TIER_PERSISTENT)
+                .register(meterRegistry);
+        misses = Counter.builder("ai.cache.requests").tag("result", "miss").tag("tier", "none")
+                .register(meterRegistry);
+        evictions = Counter.builder("ai.cache.evictions").register(meterRegistry);
+        Gauge.builder("ai.cache.size", this, AiResultCache::size).register(meterRegistry);
+    }
+
+    public String keyOf(AiServerRequest request) {
+        String raw = request.getUserId() + KEY_SEPARATOR
+                + request.getContent() + KEY_SEPARATOR
+                + request.getWeather() + KEY_SEPARATOR
+                + request.getPersona() + KEY_SEPARATOR
+                + request.getGender();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 메모리 → 영속 계층 순서로 조회한다. 없으면 빈 Mono.
+     */
+    public Mono<AiServiceResult> get(String key) {
+        AiServiceResult cached = getFromMemory(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Mono.just(copyOf(cached));
+        }
+        if (!persistentEnabled) {
+            misses.increment();
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> aiResultCacheRepository.findById(key).map(this::toResult).orElse(null))
+                .subscribeOn(aiIoScheduler)
+                .doOnNext(result -> {
+                    persistentHits.increment();
+                    putInMemory(key, result);
+                })
+                .map(this::copyOf)
+                .switchIfEmpty(Mono.fromRunnable(misses::increment));
+    }
+
+    public Mono<Void> put(String key, AiServiceResult result) {
+        putInMemory(key, copyOf(result));
+        if (!persistentEnabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> aiResultCacheRepository.save(toEntry(key, result)))
+                .subscribeOn(aiIoScheduler)
+                .onErrorResume(e -> {
+                    // 캐시 저장 실패는 분석 결과 반환을 막지 않는다
+                    log.warn("AI 결과 캐시 저장 실패: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * 텍스트 분석 결과만 새 결과로 바꾼다 (재분석). 이미 채워진 이미지 URL은 그대로 둔다.
+     */
+    public Mono<Void> replaceText(String key, AiServiceResult result) {
+        replaceTextInMemory(key, result);
+        if (!persistentEnabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> {
+                    AiResultCacheEntry entry = toEntry(key, result);
+                    aiResultCacheRepository.findById(key)
+                            .map(AiResultCacheEntry::getImageUrl)
+                            .ifPresent(imageUrl -> {
+                                entry.setImageUrl(imageUrl);
+                                // 메모리에서 밀려난 항목이었다면 메모리 쪽에도 이미지를 다시 채운다
+                                attachImageInMemory(key, imageUrl);
+                            });
+                    aiResultCacheRepository.save(entry);
+                })
+                .subscribeOn(aiIoScheduler)
+                .onErrorResume(e -> {
+                    log.warn("AI 결과 캐시 저장 실패: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * 이미 저장된 텍스트 분석 결과에 이미지 URL을 채운다. 항목이 없으면(만료/제거) 아무것도 하지 않는다.
+     */
+    public Mono<Void> attachImage(String key, String imageUrl) {
+        attachImageInMemory(key, imageUrl);
+        if (!persistentEnabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> aiResultCacheRepository.findById(key).ifPresent(entry -> {
+                    entry.setImageUrl(imageUrl);
+                    aiResultCacheRepository.save(entry);
+                }))
+                .subscribeOn(aiIoScheduler)
+                .onErrorResume(e -> {
+                    log.warn("AI 결과 캐시 이미지 저장 실패: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private synchronized AiServiceResult getFromMemory(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void putInMemory(String key, AiServiceResult result) {
+        entries.put(key, result);
+    }
+
+    private synchronized void replaceTextInMemory(String key, AiServiceResult result) {
+        AiServiceResult updated = copyOf(result);
+        AiServiceResult cached = entries.get(key);
+        if (cached != null && cached.getImageUrl() != null) {
+            updated.setImageUrl(cached.getImageUrl());
+        }
+        entries.put(key, updated);
+    }
+
+    private synchronized void attachImageInMemory(String key, String imageUrl) {
+        AiServiceResult cached = entries.get(key);
+        if (cached != null) {
+            AiServiceResult updated = copyOf(cached);
+            updated.setImageUrl(imageUrl);
+            entries.put(key, updated);
+        }
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private AiServiceResult copyOf(AiServiceResult result) {
+        // 호출자가 결과를 수정해도 캐시 값이 바뀌지 않도록 복사본을 사용
+        return AiServiceResult.builder()
+                .aiComment(result.getAiComment())
+                .emotion(result.getEmotion())
+                .recommendedFood(result.getRecommendedFood())
+                .imageUrl(result.getImageUrl())
+                .build();
+    }
+
+    private AiResultCacheEntry toEntry(String key, AiServiceResult result) {
+        try {
+            return AiResultCacheEntry.builder()
+                    .cacheKey(key)
+                    .emotion(result.getEmotion())
+                    .aiComment(result.getAiComment())
+                    .recommendedFood(objectMapper.writeValueAsString(result.getRecommendedFood()))
+                    .imageUrl(result.getImageUrl())
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        } catch (Exception e) {
+            throw new RuntimeException("JSON conversion failed", e);
+        }
+    }
+
+    private AiServiceResult toResult(AiResultCacheEntry entry) {
+        try {
+            RecommendedFood recommendedFood = entry.getRecommendedFood() != null
+                    ? objectMapper.readValue(entry.getRecommendedFood(), RecommendedFood.class)
+                    : null;
+            return AiServiceResult.builder()
+                    .emotion(entry.getEmotion())
+                    .aiComment(entry.getAiComment())
+                    .recommendedFood(recommendedFood)
+                    .imageUrl(entry.getImageUrl())
+                    .build();
+        } catch (Exception e) {
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+    }
+}
@@ -1,87 +1,310 @@
 package com.p_project.p_project_backend.backend_user.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.p_project.p_project_backend.backend_user.dto.ai.AiServerRequest;
 import com.p_project.p_project_backend.backend_user.dto.ai.AiServerResponse;
 import com.p_project.p_project_backend.backend_user.dto.ai.AiServiceResult;
+import com.p_project.p_project_backend.backend_user.service.AiResilience.Phase;
+import io.micrometer.core.instrument.Tags;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.util.Base64;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AiService {
 
     // AI 생성 이미지 저장 경로 (프로젝트 루트/images/ai_generates)
     private static final String IMAGE_UPLOAD_DIR = "images/ai_generates/";
+    private static final int IMAGE_WRITE_BUFFER_SIZE = 64 * 1024;
+
     private final WebClient aiWebClient;
+    // 이미지 디코딩/파일 쓰기 전용 bounded elastic 스케줄러 (AiConfig)
+    private final Scheduler aiIoScheduler;
+    private final AiResultCache aiResultCache;
+    // 벌크헤드/응답 시한/서킷 브레이커
+    private final AiResilience aiResilience;
+    // 텍스트 분석 요청 마이크로 배칭
+    private final AiTextBatcher aiTextBatcher;
+    // 단계별 소요 시간/페이로드 크기 계측
+    private final AiMetrics aiMetrics;
+    private final ObjectMapper objectMapper;
+
+    @Value("${ai.batch.enabled:true}")
+    private boolean batchEnabled;
 
-    public String sendToAiServer(Map<String, Object> requestData) {
+    public Mono<String> sendToAiServer(Map<String, Object> requestData) {
         // WebClient를 사용하여 AI 서버로 POST 요청 전송
         return aiWebClient.post()
                 .uri("/ai/test") // FastAPI의 엔드포인트 경로
                 .bodyValue(requestData) // 클라이언트로부터 받은 데이터를 그대로 전달
                 .retrieve()
-                .bodyToMono(String.class) // 응답을 String으로 받음
-                .block(); // 테스트를 위해 동기식(Blocking)으로 처리하여 결과 반환
+                .bodyToMono(String.class); // 응답을 String으로 받음
+    }
+
+    /**
+     * 1단계: 텍스트 분석 (Non-blocking)
+     * 감정/코멘트/음식 추천만 요청하므로 일기 작성 요청 경로에서 기다려도 되는 수준의 지연이다.
+     * 같은 사용자의 동일한 입력(userId, content, weather, persona, gender)은 AiResultCache에서 바로 반환하며,
+     * 이미 이미지 단계까지 끝난 입력이면 캐시 결과에 imageUrl이 함께 들어 있다.
+     * AI 서버 호출은 AiResilience로 보호되며, 거절/시간 초과/실패는 그대로 에러로 전달된다.
+     * 배칭이 켜져 있으면(ai.batch.enabled) 다른 요청과 묶어 한 번에 보낸다 (AiTextBatcher).
+     */
+    public Mono<AiServiceResult> analyzeTextAsync(AiServerRequest request) {
+        String cacheKey = aiResultCache.keyOf(request);
+        return aiResultCache.get(cacheKey)
+                .switchIfEmpty(Mono.defer(() -> requestText(request)
+                        .flatMap(result -> aiResultCache.put(cacheKey, result).thenReturn(result))));
+    }
+
+    /**
+     * 재분석 (관리자 일괄 재분석)
+     * 감정 모델이 바뀐 뒤의 재분석이므로 캐시를 읽지 않고, 캐시 항목의 텍스트 분석 결과만 새 결과로 바꾼다
+     * (같은 입력으로 이미 생성한 imageUrl은 유지).
+     */
+    public Mono<AiServiceResult> reanalyzeTextAsync(AiServerRequest request) {
+        String cacheKey = aiResultCache.keyOf(request);
+        return requestText(request)
+                .flatMap(result -> aiResultCache.replaceText(cacheKey, result).thenReturn(result));
+    }
+
+    private Mono<AiServiceResult> requestText(AiServerRequest request) {
+        Mono<AiServiceResult> call = batchEnabled
+                ? aiTextBatcher.submit(request)
+                : aiResilience.guard(Phase.TEXT, () -> requestTextAnalysis(request));
+        return Mono.deferContextual(context -> {
+            aiMetrics.recordPayload("text_request", aiMetrics.tags(request, context), contentBytes(request));
+            return aiMetrics.timed("text", request, call);
+        });
+    }
+
+    /**
+     * 2단계: 이미지 생성 (Non-blocking)
+     * 저장된 이미지 URL을 반환하고, 같은 입력의 캐시 항목에 이미지 URL을 채워 둔다.
+     */
+    public Mono<String> generateImageAsync(AiServerRequest request) {
+        String cacheKey = aiResultCache.keyOf(request);
+        return aiMetrics.timed("image", request, aiResilience.guard(Phase.IMAGE, () -> requestImage(request)))
+                .flatMap(imageUrl -> aiResultCache.attachImage(cacheKey, imageUrl).thenReturn(imageUrl));
     }
 
-    public AiServiceResult analyzeDiary(AiServerRequest request) {
-        // 1. AI 서버로 요청 전송 (AiServerRequest 객체 그대로 전송 -> JSON 변환됨)
-        AiServerResponse response = aiWebClient.post()
-                .uri("/api/ai/diary")
+    private Mono<AiServiceResult> requestTextAnalysis(AiServerRequest request) {
+        // 텍스트 응답은 작으므로 바로 객체로 변환한다
+        return aiWebClient.post()
+                .uri("/api/ai/diary/text")
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(AiServerResponse.class)
-                .block();
-
-        if (response == null) {
-            throw new RuntimeException("AI Server returned null response");
-        }
-
-        // 2. 이미지 디코딩 및 저장
-        String base64Image = response.getImage();
-        String imageUrl = "";
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("AI Server returned null response")))
+                .map(AiService::toTextResult);
+    }
 
-        if (base64Image != null && !base64Image.isEmpty()) {
-            imageUrl = saveImage(base64Image);
+    /**
+     * 텍스트 분석 응답(단건/배치 항목 공통) 변환
+     */
+    static AiServiceResult toTextResult(AiServerResponse response) {
+        if (response.getEmotion() == null) {
+            // AI 서버는 처리 실패 시에도 200으로 {error, detail}을 반환한다
+            throw new RuntimeException("AI Server returned no analysis result"
+                    + (response.getError() != null ? ": " + response.getError() : ""));
         }
-
-        // 3. 결과 반환 (AiServiceResult 생성)
         return AiServiceResult.builder()
                 .aiComment(response.getAiComment())
                 .emotion(response.getEmotion())
                 .recommendedFood(response.getRecommendedFood())
-                .imageUrl(imageUrl)
                 .build();
     }
 
-    private String saveImage(String base64Image) {
-        try {
-            byte[] imageBytes = Base64.getDecoder().decode(base64Image);
-            String uuid = UUID.randomUUID().toString();
-            String fileName = uuid + ".jpg";
+    /**
+     * AI 서버 이미지 응답을 힙에 모으지 않고 처리한다.
+     * 1) 응답 DataBuffer를 그대로 임시 파일에 기록
+     * 2) 임시 파일을 스트리밍 파싱하면서 image(Base64) 필드는 디코딩하며 바로 FileChannel에 기록
+     * 따라서 이미지 크기와 무관하게 요청당 힙 사용량은 버퍼 크기 수준으로 일정하다.
+     * 각 단계(생성 대기, 수신, 디코딩, 디스크 기록)의 소요 시간은 AiMetrics에 따로 기록한다.
+     */
+    private Mono<String> requestImage(AiServerRequest request) {
+        return Mono.deferContextual(context -> {
+            Tags tags = aiMetrics.tags(request, context);
+            aiMetrics.recordPayload("image_request", tags, contentBytes(request));
+            return Mono.using(
+                    () -> Files.createTempFile("ai-image-response-", ".json"),
+                    responseFile -> download(request, responseFile, tags)
+                            .then(Mono.fromCallable(() -> readImage(responseFile, tags)).subscribeOn(aiIoScheduler)),
+                    this::deleteQuietly);
+        }).subscribeOn(aiIoScheduler);
+    }
 
-            File directory = new File(IMAGE_UPLOAD_DIR);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
+    private Mono<Void> download(AiServerRequest request, Path responseFile, Tags tags) {
+        return Mono.defer(() -> {
+            // 첫 바이트까지(네트워크 + 이미지 생성)와 본문 수신을 나누어 기록한다
+            long startedAt = System.nanoTime();
+            AtomicLong firstByteAt = new AtomicLong();
+            Flux<DataBuffer> body = fetchImage(request)
+                    .doOnNext(buffer -> firstByteAt.compareAndSet(0, System.nanoTime()));
+            return DataBufferUtils.write(body, responseFile,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+                    .doOnSuccess(done -> {
+                        long finishedAt = System.nanoTime();
+                        long firstByte = firstByteAt.get() != 0 ? firstByteAt.get() : finishedAt;
+                        aiMetrics.record("image_inference", tags, firstByte - startedAt, AiMetrics.OUTCOME_SUCCESS);
+                        aiMetrics.record("image_download", tags, finishedAt - firstByte, AiMetrics.OUTCOME_SUCCESS);
+                        aiMetrics.recordPayload("image_response", tags, responseFile.toFile().length());
+                    })
+                    .doOnError(e -> aiMetrics.record("image_inference", tags, System.nanoTime() - startedAt,
+                            AiMetrics.OUTCOME_ERROR));
+        });
+    }
 
-            File outputFile = new File(IMAGE_UPLOAD_DIR + fileName);
-            try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-                fos.write(imageBytes);
+    private Flux<DataBuffer> fetchImage(AiServerRequest request) {
+        return aiWebClient.post()
+                .uri("/api/ai/diary/image")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+    }
+
+    private String readImage(Path responseFile, Tags tags) throws IOException {
+        long startedAt = System.nanoTime();
+        SavedImage image = SavedImage.NONE;
+        String error = null;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(responseFile.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("AI Server returned null response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if (valueToken == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    // 이미지 디코딩 및 저장 (Base64 문자열을 메모리에 올리지 않음)
+                    case "image" -> {
+                        discard(image); // 같은 필드가 다시 오면 앞서 저장한 파일은 쓰이지 않는다
+                        image = saveImage(parser);
+                    }
+                    case "error", "detail" -> error = (error == null ? "" : error + ": ") + parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
             }
+        } catch (IOException | RuntimeException e) {
+            // 이미지를 저장한 뒤 나머지 응답을 읽다 실패하면 저장한 파일은 어디에서도 참조되지 않는다
+            discard(image);
+            throw e;
+        }
+
+        if (image.url().isEmpty()) {
+            // 이미지 생성 실패 시 AI 서버는 image: null 또는 {error, detail}을 반환한다
+            throw new RuntimeException("AI Server returned no image" + (error != null ? ": " + error : ""));
+        }
+        // 파싱/디코딩과 디스크 기록은 한 스트림에서 번갈아 일어나므로 기록 시간을 빼서 디코딩 시간을 구한다
+        long decodeNanos = System.nanoTime() - startedAt - image.writeNanos();
+        aiMetrics.record("image_decode", tags, decodeNanos, AiMetrics.OUTCOME_SUCCESS);
+        aiMetrics.record("image_write", tags, image.writeNanos(), AiMetrics.OUTCOME_SUCCESS);
+        aiMetrics.recordPayload("image_file", tags, image.bytes());
+        return image.url();
+    }
 
-            return "/images/ai_generates/" + fileName;
+    private SavedImage saveImage(JsonParser parser) throws IOException {
+        Path directory = Paths.get(IMAGE_UPLOAD_DIR);
+        Files.createDirectories(directory);
+
+        String fileName = UUID.randomUUID() + ".jpg";
+        Path outputFile = directory.resolve(fileName);
+
+        int written;
+        WriteTimingOutputStream channelOut;
+        try (FileChannel channel = FileChannel.open(outputFile, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+                WriteTimingOutputStream timedOut = new WriteTimingOutputStream(Channels.newOutputStream(channel));
+                OutputStream out = new BufferedOutputStream(timedOut, IMAGE_WRITE_BUFFER_SIZE)) {
+            // Jackson은 아직 읽지 않은 문자열 토큰을 입력 버퍼 단위로 Base64 디코딩하여 out에 기록한다
+            written = parser.readBinaryValue(out);
+            channelOut = timedOut;
+        } catch (IOException | RuntimeException e) {
+            // 디코딩/기록 중 실패하면 일부만 기록된 파일을 남기지 않는다
+            deleteQuietly(outputFile);
+            throw e;
+        }
 
+        if (written == 0) {
+            Files.deleteIfExists(outputFile);
+            return SavedImage.NONE;
+        }
+        // 기록 시간에는 close 시 남은 버퍼를 비우는 시간까지 포함된다
+        return new SavedImage("/images/ai_generates/" + fileName, outputFile, written, channelOut.nanos);
+    }
+
+    private static long contentBytes(AiServerRequest request) {
+        return request.getContent() != null ? request.getContent().getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to save AI image", e);
+            log.warn("파일 삭제 실패: {}", file, e);
+        }
+    }
+
+    private void discard(SavedImage image) {
+        if (image.file() != null) {
+            deleteQuietly(image.file());
+        }
+    }
+
+    private record SavedImage(String url, Path file, long bytes, long writeNanos) {
+        static final SavedImage NONE = new SavedImage("", null, 0, 0);
+    }
+
+    /**
+     * 파일 채널에 실제로 기록하는 데 걸린 시간 누적 (BufferedOutputStream 아래에 둔다)
+     */
+    private static class WriteTimingOutputStream extends FilterOutputStream {
+        private long nanos;
+
+        WriteTimingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long startedAt = System.nanoTime();
+            out.write(b);
+            nanos += System.nanoTime() - startedAt;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long startedAt = System.nanoTime();
+            out.write(b, off, len);
+            nanos += System.nanoTime() - startedAt;
         }
     }
 }
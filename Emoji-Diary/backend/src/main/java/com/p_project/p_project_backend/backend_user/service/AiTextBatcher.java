@@ -0,0 +1,147 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerBatchRequest;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerBatchResponse;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerRequest;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerResponse;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServiceResult;
+import com.p_project.p_project_backend.backend_user.service.AiResilience.Phase;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 텍스트 분석 요청 마이크로 배칭
+ * 감정 분류 모델은 한 번에 여러 문장을 넣을 때 항목당 비용이 크게 줄어들므로,
+ * 대기 중인 요청을 최대 max-size개 또는 max-wait 동안 모아 /api/ai/diary/text/batch로 한 번에 보낸 뒤
+ * 결과를 각 호출자에게 나누어 돌려준다.
+ * - 배치 호출 하나가 AiResilience(TEXT)의 호출 1건으로 계산된다.
+ * - 배치 전체 실패는 모든 호출자에게, 항목 실패는 해당 호출자에게만 에러로 전달된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiTextBatcher {
+
+    private final WebClient aiWebClient;
+    private final AiResilience aiResilience;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.batch.max-size:16}")
+    private int maxSize;
+
+    @Value("${ai.batch.max-wait:20ms}")
+    private Duration maxWait;
+
+    @Value("${ai.batch.max-concurrent-batches:4}")
+    private int maxConcurrentBatches;
+
+    private Sinks.Many<PendingRequest> pendingRequests;
+    private Disposable dispatcher;
+    private DistributionSummary fillRatio;
+    private DistributionSummary batchSize;
+    private Timer queueWait;
+
+    @PostConstruct
+    void start() {
+        fillRatio = DistributionSummary.builder("ai.batch.fill.ratio")
+                .description("배치 크기 / 최대 배치 크기")
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("ai.batch.size")
+                .description("AI 서버로 보낸 배치의 항목 수")
+                .register(meterRegistry);
+        queueWait = Timer.builder("ai.batch.wait")
+                .description("요청이 배치에 담겨 전송되기까지 기다린 시간")
+                .register(meterRegistry);
+
+        pendingRequests = Sinks.many().unicast().onBackpressureBuffer();
+        // fairBackpressure=true: 동시 배치 수 제한으로 하류가 밀려도 버퍼를 버리지 않고 기다린다
+        dispatcher = pendingRequests.asFlux()
+                .bufferTimeout(maxSize, maxWait, true)
+                .flatMap(this::dispatch, maxConcurrentBatches)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.dispose();
+    }
+
+    public Mono<AiServiceResult> submit(AiServerRequest request) {
+        return Mono.defer(() -> {
+            Sinks.One<AiServiceResult> result = Sinks.one();
+            PendingRequest pending = new PendingRequest(request, result, System.nanoTime());
+            Sinks.EmitResult emitResult;
+            // 여러 요청 스레드에서 동시에 넣으므로 emit은 직렬화한다
+            synchronized (this) {
+                emitResult = pendingRequests.tryEmitNext(pending);
+            }
+            if (emitResult.isFailure()) {
+                return Mono.error(new IllegalStateException("AI batch queue is not accepting requests: " + emitResult));
+            }
+            return result.asMono();
+        });
+    }
+
+    private Mono<Void> dispatch(List<PendingRequest> batch) {
+        long dispatchedAt = System.nanoTime();
+        batch.forEach(pending -> queueWait.record(Duration.ofNanos(dispatchedAt - pending.enqueuedAt())));
+        batchSize.record(batch.size());
+        fillRatio.record((double) batch.size() / maxSize);
+
+        AiServerBatchRequest body = new AiServerBatchRequest(
+                batch.stream().map(PendingRequest::request).toList());
+
+        return aiResilience.guard(Phase.TEXT, () -> aiWebClient.post()
+                        .uri("/api/ai/diary/text/batch")
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(AiServerBatchResponse.class))
+                .doOnNext(response -> fanOut(batch, response))
+                .switchIfEmpty(Mono.fromRunnable(
+                        () -> failAll(batch, new RuntimeException("AI Server returned null response"))))
+                .onErrorResume(e -> {
+                    failAll(batch, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void fanOut(List<PendingRequest> batch, AiServerBatchResponse response) {
+        List<AiServerResponse> results = response.getResults();
+        if (results == null || results.size() != batch.size()) {
+            failAll(batch, new RuntimeException("AI Server returned invalid batch response"
+                    + (response.getError() != null ? ": " + response.getError() + ": " + response.getDetail() : "")));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Sinks.One<AiServiceResult> sink = batch.get(i).result();
+            try {
+                sink.tryEmitValue(AiService.toTextResult(results.get(i)));
+            } catch (RuntimeException e) {
+                sink.tryEmitError(e);
+            }
+        }
+    }
+
+    private void failAll(List<PendingRequest> batch, Throwable error) {
+        log.warn("AI 배치 요청 실패 ({}건): {}", batch.size(), error.getMessage());
+        batch.forEach(pending -> pending.result().tryEmitError(error));
+    }
+
+    private record PendingRequest(AiServerRequest request, Sinks.One<AiServiceResult> result, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 비동기 일기 분석 완료 알림 (SSE)
+ * 일기 ID별 구독자를 보관하고, 분석이 끝나면 한 번 전송한 뒤 연결을 종료한다.
+ */
+@Slf4j
+@Component
+public class DiaryAnalysisNotifier {
+
+    private static final long SSE_TIMEOUT_MILLIS = 60_000L;
+    private static final String EVENT_NAME = "analysis";
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(Long diaryId) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        emitters.computeIfAbsent(diaryId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        emitter.onCompletion(() -> remove(diaryId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(diaryId, emitter));
+        return emitter;
+    }
+
+    /**
+     * 이미 분석이 끝난 경우 구독 없이 즉시 결과를 전송하고 종료하는 Emitter
+     */
+    public SseEmitter completed(Object payload) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        send(emitter, payload);
+        return emitter;
+    }
+
+    public void publish(Long diaryId, Object payload) {
+        List<SseEmitter> subscribers = emitters.remove(diaryId);
+        if (subscribers == null) {
+            return;
+        }
+        subscribers.forEach(emitter -> send(emitter, payload));
+    }
+
+    private void send(SseEmitter emitter, Object payload) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(payload));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE 전송 실패 (클라이언트 연결 종료): {}", e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long diaryId, SseEmitter emitter) {
+        emitters.computeIfPresent(diaryId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
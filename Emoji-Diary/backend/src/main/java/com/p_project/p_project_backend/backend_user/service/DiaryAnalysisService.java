@@ -0,0 +1,232 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerRequest;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServiceResult;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryAnalysisStatusResponse;
+import com.p_project.p_project_backend.entity.AiJob;
+import com.p_project.p_project_backend.entity.AiJob.Phase;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * AI 작업 대기열(ai_jobs) 워커
+ * 단계(TEXT/IMAGE)별 제한된 워커 풀이 비어 있는 만큼만 작업을 할당받아 실행하므로,
+ * AI 처리량은 HTTP 요청량과 무관하게 워커 수로 정해지고 여러 노드가 같은 대기열을 나누어 처리할 수 있다.
+ * - TEXT: 비동기 작성(PENDING) 및 대체 결과(DEGRADED) 일기의 분석, 결과는 SSE로 알림
+ * - IMAGE: 텍스트 분석 이후 그림일기 이미지 생성, 실패/시간 초과는 imageStatus=FAILED로만 기록
+ * AI 서버 서킷이 열린 단계는 할당을 건너뛴다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DiaryAnalysisService {
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_RETRY = "retry";
+    private static final String OUTCOME_FAILURE = "failure";
+    private static final String OUTCOME_SKIPPED = "skipped";
+
+    private final AiService aiService;
+    private final DiaryService diaryService;
+    private final AiJobService aiJobService;
+    private final DiaryAnalysisNotifier diaryAnalysisNotifier;
+    private final AiResilience aiResilience;
+    private final ImageVariantService imageVariantService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${diary.analysis.pool-size:4}")
+    private int textPoolSize;
+
+    @Value("${diary.image.pool-size:2}")
+    private int imagePoolSize;
+
+    @Value("${diary.jobs.batch-size:10}")
+    private int batchSize;
+
+    private final Map<Phase, ThreadPoolTaskExecutor> executors = new EnumMap<>(Phase.class);
+
+    @PostConstruct
+    void initExecutors() {
+        executors.put(Phase.TEXT, createExecutor(Phase.TEXT, textPoolSize, "diary-analysis-"));
+        executors.put(Phase.IMAGE, createExecutor(Phase.IMAGE, imagePoolSize, "diary-image-"));
+        registerQueueDepth(Phase.TEXT, "diary.analysis.queue.depth", "분석 대기 중인 일기 수 (전체 노드 공유 대기열)");
+        registerQueueDepth(Phase.IMAGE, "diary.image.queue.depth", "이미지 생성 대기 중인 일기 수 (전체 노드 공유 대기열)");
+    }
+
+    @PreDestroy
+    void shutdownExecutors() {
+        executors.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverJobs() {
+        aiJobService.recover();
+    }
+
+    @Scheduled(fixedDelayString = "${diary.jobs.poll-interval-ms:1000}")
+    public void pollJobs() {
+        for (Phase phase : Phase.values()) {
+            if (!aiResilience.isAvailable(AiResilience.Phase.valueOf(phase.name()))) {
+                continue;
+            }
+            ThreadPoolTaskExecutor executor = executors.get(phase);
+            // 풀이 바로 실행할 수 있는 만큼만 할당받아 lease가 대기 중에 소모되지 않게 한다
+            int idle = executor.getMaxPoolSize() - executor.getActiveCount()
+                    - executor.getThreadPoolExecutor().getQueue().size();
+            int limit = Math.min(batchSize, idle);
+            if (limit <= 0) {
+                continue;
+            }
+
+            List<AiJob> jobs = aiJobService.claim(phase, limit);
+            for (AiJob job : jobs) {
+                executor.execute(() -> run(job));
+            }
+        }
+    }
+
+    private void run(AiJob job) {
+        Long diaryId = job.getDiary().getId();
+        String outcome;
+        try {
+            Optional<AiServerRequest> aiRequest = diaryService.buildJobRequest(diaryId, job.getPhase());
+            if (aiRequest.isEmpty()) {
+                // 삭제되었거나 다른 경로(수정 등)에서 이미 처리된 일기
+                outcome = OUTCOME_SKIPPED;
+            } else if (job.getPhase() == Phase.TEXT) {
+                outcome = analyze(diaryId, aiRequest.get()) ? OUTCOME_SUCCESS : OUTCOME_SKIPPED;
+            } else {
+                generateImage(diaryId, aiRequest.get());
+                outcome = OUTCOME_SUCCESS;
+            }
+            complete(job);
+        } catch (Exception e) {
+            log.warn("AI 작업 실패. diaryId={}, phase={}, attempts={}: {}", diaryId, job.getPhase(),
+                    job.getAttempts(), e.getMessage());
+            outcome = handleFailure(job, diaryId, e);
+        }
+        record(job, outcome);
+    }
+
+    /**
+     * @return 결과 반영 여부 (분석 중 일기가 수정되어 이미 처리되었으면 false)
+     */
+    private boolean analyze(Long diaryId, AiServerRequest aiRequest) {
+        AiServiceResult aiResult = aiService.analyzeTextAsync(aiRequest)
+                .contextWrite(AiMetrics.operation(AiMetrics.Operation.JOB))
+                .block();
+        // IMAGE 작업은 applyAnalysisResult 트랜잭션에서 함께 등록된다
+        Optional<DiaryAnalysisStatusResponse> status = diaryService.applyAnalysisResult(diaryId,
+                aiRequest.getContent(), aiRequest.getWeather(), aiResult);
+        if (status.isEmpty()) {
+            log.info("분석 중 일기가 수정되어 결과를 버립니다. diaryId={}", diaryId);
+            return false;
+        }
+        diaryAnalysisNotifier.publish(diaryId, status.get());
+        return true;
+    }
+
+    private void generateImage(Long diaryId, AiServerRequest aiRequest) {
+        // 응답 시한(ai.resilience.image.timeout) 초과 시 진행 중인 AI 서버 요청도 취소된다
+        String imageUrl = aiService.generateImageAsync(aiRequest)
+                .contextWrite(AiMetrics.operation(AiMetrics.Operation.JOB))
+                .block();
+        // 축소본은 전용 풀에서 만들고, 완성된 뒤 이미지와 함께 READY로 반영한다
+        ImageVariantService.ImageVariants variants = imageVariantService.createVariants(imageUrl).join();
+        if (!diaryService.applyImageResult(diaryId, aiRequest.getContent(), aiRequest.getWeather(), imageUrl,
+                variants)) {
+            log.info("이미지 생성 중 일기가 수정되어 결과를 버립니다. diaryId={}", diaryId);
+        }
+    }
+
+    private String handleFailure(AiJob job, Long diaryId, Exception error) {
+        try {
+            boolean retrying = aiJobService.retry(job, error);
+            if (job.getPhase() == Phase.TEXT) {
+                // 재시도 중에는 대체 결과(DEGRADED)를, 최종 실패 시 FAILED를 알린다
+                DiaryAnalysisStatusResponse status = retrying
+                        ? diaryService.markAnalysisDegraded(diaryId)
+                        : diaryService.markAnalysisFailed(diaryId);
+                diaryAnalysisNotifier.publish(diaryId, status);
+            } else if (!retrying) {
+                AiServerRequest request = diaryService.buildJobRequest(diaryId, Phase.IMAGE).orElse(null);
+                if (request != null) {
+                    diaryService.markImageFailed(diaryId, request.getContent(), request.getWeather());
+                }
+            }
+            return retrying ? OUTCOME_RETRY : OUTCOME_FAILURE;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // 실행 중 같은 일기의 작업이 다시 등록됨 - 새 작업이 처리한다
+            return OUTCOME_SKIPPED;
+        } catch (Exception e) {
+            // 일기가 삭제된 경우 등, lease가 만료되면 다시 할당된다
+            log.warn("AI 작업 실패 처리 실패. diaryId={}: {}", diaryId, e.getMessage());
+            return OUTCOME_FAILURE;
+        }
+    }
+
+    private void complete(AiJob job) {
+        try {
+            aiJobService.complete(job);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // 실행 중 같은 일기의 작업이 다시 등록됨 - 새 작업은 남겨 둔다
+            log.debug("재등록된 AI 작업은 유지합니다. jobId={}", job.getId());
+        }
+    }
+
+    private void record(AiJob job, String outcome) {
+        // 작업 최초 등록부터 이번 실행 종료까지 (재시도 대기 시간 포함)
+        Duration elapsed = Duration.between(job.getCreatedAt(), LocalDateTime.now());
+        Timer.builder("diary.analysis.completion")
+                .description("AI 작업 등록부터 실행 종료까지 걸린 시간")
+                .tag("phase", job.getPhase().name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed);
+    }
+
+    private ThreadPoolTaskExecutor createExecutor(Phase phase, int poolSize, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        // 할당량을 풀 여유만큼으로 제한하므로 대기열은 풀 크기면 충분하다
+        executor.setQueueCapacity(poolSize);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        String tag = phase.name().toLowerCase();
+        Gauge.builder("diary.analysis.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("현재 실행 중인 AI 작업 수")
+                .tag("phase", tag)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // 작업은 ai_jobs에서 풀 여유만큼만 가져오므로 실제 대기량은 실행기 큐가 아닌 QUEUED 행 수로 본다
+    private void registerQueueDepth(Phase phase, String name, String description) {
+        Gauge.builder(name, aiJobService, service -> service.countQueued(phase))
+                .description(description)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,147 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryResponse;
+import com.p_project.p_project_backend.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 일기 내보내기 ("내 일기 다운로드")
+ * 일기를 (date, id) 순으로 chunk-size개씩 읽어 바로 응답에 쓴다. 메모리에는 한 묶음과 파일 복사 버퍼만 올라가므로
+ * 몇 년 치 일기라도 사용량이 같다. 묶음마다 읽기 트랜잭션이 끝나 다운로드가 느려도 DB 커넥션을 점유하지 않는다.
+ * - ndjson: 한 줄에 일기 하나 (GET /api/diaries/{id}와 같은 형식)
+ * - zip: diaries/{date}.json, 첨부 이미지 images/{date}/{순번}-{파일명}, AI 그림 images/{date}/ai-{파일명}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DiaryExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        ZIP("application/zip");
+
+        private final MediaType mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String fileName(LocalDate date) {
+            return "emoji-diary-" + date + "." + name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Format from(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("지원하지 않는 내보내기 형식입니다: " + value);
+            }
+        }
+    }
+
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final String IMAGE_URL_PREFIX = "/images/";
+    private static final Path IMAGE_ROOT = Paths.get("images").toAbsolutePath().normalize();
+    private static final byte[] NEWLINE = { '\n' };
+
+    private final DiaryService diaryService;
+    private final JsonMapper jsonMapper;
+
+    @Value("${diary.export.chunk-size:100}")
+    private int chunkSize;
+
+    public void export(User user, Format format, OutputStream out) throws IOException {
+        if (format == Format.ZIP) {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            forEachDiary(user, diary -> writeZipEntries(zip, diary));
+            // 응답 스트림은 프레임워크가 닫으므로 ZIP 끝(central directory)만 쓴다
+            zip.finish();
+        } else {
+            forEachDiary(user, diary -> {
+                out.write(jsonMapper.writeValueAsBytes(diary));
+                out.write(NEWLINE);
+            });
+        }
+        out.flush();
+    }
+
+    private void forEachDiary(User user, DiaryWriter writer) throws IOException {
+        LocalDate afterDate = MIN_DATE;
+        Long afterId = 0L;
+        while (true) {
+            List<DiaryResponse> chunk = diaryService.getDiariesForExport(user, afterDate, afterId, chunkSize);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            for (DiaryResponse diary : chunk) {
+                writer.write(diary);
+            }
+            DiaryResponse last = chunk.get(chunk.size() - 1);
+            afterDate = last.getDate();
+            afterId = last.getId();
+        }
+    }
+
+    private void writeZipEntries(ZipOutputStream zip, DiaryResponse diary) throws IOException {
+        String date = diary.getDate().toString();
+        zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+        zip.putNextEntry(new ZipEntry("diaries/" + date + ".json"));
+        zip.write(jsonMapper.writeValueAsBytes(diary));
+        zip.closeEntry();
+
+        List<String> images = diary.getImages() != null ? diary.getImages() : List.of();
+        for (int i = 0; i < images.size(); i++) {
+            copyImage(zip, images.get(i), "images/" + date + "/" + (i + 1) + "-");
+        }
+        copyImage(zip, diary.getImageUrl(), "images/" + date + "/ai-");
+    }
+
+    private void copyImage(ZipOutputStream zip, String imageUrl, String entryPrefix) throws IOException {
+        Path file = toImagePath(imageUrl);
+        if (file == null || !Files.isRegularFile(file)) {
+            // 외부 URL이거나 이미 지워진 파일
+            log.debug("내보내기에서 이미지 제외: {}", imageUrl);
+            return;
+        }
+        // JPEG/PNG는 이미 압축되어 있으므로 다시 압축하지 않는다 (CPU 절약)
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        zip.putNextEntry(new ZipEntry(entryPrefix + file.getFileName()));
+        Files.copy(file, zip);
+        zip.closeEntry();
+    }
+
+    private static Path toImagePath(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(IMAGE_URL_PREFIX)) {
+            return null;
+        }
+        Path path = IMAGE_ROOT.resolve(imageUrl.substring(IMAGE_URL_PREFIX.length())).normalize();
+        // ../ 등으로 images 밖을 가리키는 URL은 무시한다
+        return path.startsWith(IMAGE_ROOT) ? path : null;
+    }
+
+    @FunctionalInterface
+    private interface DiaryWriter {
+        void write(DiaryResponse diary) throws IOException;
+    }
+}
@@ -0,0 +1,154 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryCreateRequest;
+import com.p_project.p_project_backend.entity.User;
+import com.p_project.p_project_backend.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 일기 작성(POST /api/diaries) 중복 요청 처리
+ * - 단일 실행(single-flight): 같은 사용자/날짜의 작성이 진행 중이면 같은 내용의 요청은 그 결과를 함께 기다린다.
+ *   (더블 탭/재시도마다 AI 분석이 따로 실행되지 않음)
+ * - Idempotency-Key: 성공 응답을 키별로 보관하여 재시도 시 다시 실행하지 않고 그대로 돌려준다.
+ *   같은 키를 다른 내용의 요청에 쓰면 IdempotencyKeyMismatchException.
+ * 저장소는 프로세스 메모리이므로 보관 응답은 노드별로 유지된다.
+ */
+@Service
+@RequiredArgsConstructor
+public class DiaryIdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String IN_FLIGHT_MESSAGE = "같은 날짜의 일기가 이미 저장 중입니다. 잠시 후 다시 확인해주세요.";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${diary.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${diary.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private Map<String, StoredResponse> storedResponses;
+    private Counter replayed;
+    private Counter coalesced;
+
+    @PostConstruct
+    void init() {
+        storedResponses = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        replayed = Counter.builder("diary.create.deduplicated").tag("reason", "replayed").register(meterRegistry);
+        coalesced = Counter.builder("diary.create.deduplicated").tag("reason", "coalesced").register(meterRegistry);
+    }
+
+    /**
+     * @param idempotencyKey Idempotency-Key 헤더 (없으면 null, 단일 실행만 적용)
+     * @param action         실제 작성 처리
+     */
+    public Mono<ResponseEntity<?>> execute(User user, String idempotencyKey, DiaryCreateRequest request,
+            boolean async, Supplier<Mono<ResponseEntity<?>>> action) {
+        String fingerprint = fingerprint(request, async);
+        String storeKey = idempotencyKey != null ? user.getId() + ":" + idempotencyKey : null;
+
+        return Mono.defer(() -> {
+            if (storeKey != null) {
+                StoredResponse stored = findStored(storeKey);
+                if (stored != null) {
+                    if (!stored.fingerprint().equals(fingerprint)) {
+                        return Mono.error(new IdempotencyKeyMismatchException(
+                                "Idempotency-Key가 다른 요청에 이미 사용되었습니다"));
+                    }
+                    replayed.increment();
+                    return Mono.just(replay(stored.response()));
+                }
+            }
+
+            String flightKey = user.getId() + ":" + request.getDate();
+            Flight created = new Flight(flightKey, fingerprint, storeKey, action);
+            Flight flight = inFlight.putIfAbsent(flightKey, created);
+            if (flight == null) {
+                return created.response;
+            }
+            if (!flight.fingerprint.equals(fingerprint)) {
+                // 같은 날짜에 다른 내용으로 작성 중 - 어차피 중복 일기이므로 AI 분석 전에 거절
+                return Mono.error(new IllegalArgumentException(IN_FLIGHT_MESSAGE));
+            }
+            coalesced.increment();
+            return flight.response.doOnNext(response -> store(storeKey, fingerprint, response));
+        });
+    }
+
+    private synchronized StoredResponse findStored(String storeKey) {
+        StoredResponse stored = storedResponses.get(storeKey);
+        if (stored != null && System.nanoTime() - stored.storedAt() > ttl.toNanos()) {
+            storedResponses.remove(storeKey);
+            return null;
+        }
+        return stored;
+    }
+
+    private synchronized void store(String storeKey, String fingerprint, ResponseEntity<?> response) {
+        // 실패 응답은 보관하지 않는다 (재시도 시 다시 실행)
+        if (storeKey == null || !response.getStatusCode().is2xxSuccessful()) {
+            return;
+        }
+        storedResponses.put(storeKey, new StoredResponse(fingerprint, response, System.nanoTime()));
+    }
+
+    private ResponseEntity<?> replay(ResponseEntity<?> stored) {
+        return ResponseEntity.status(stored.getStatusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.getBody());
+    }
+
+    private String fingerprint(DiaryCreateRequest request, boolean async) {
+        String raw = Arrays.asList(request.getDate(), request.getTitle(), request.getContent(), request.getMood(),
+                request.getWeather(), request.getActivities(), request.getImages(), async).toString();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, ResponseEntity<?> response, long storedAt) {
+    }
+
+    private class Flight {
+        private final String fingerprint;
+        private final Mono<ResponseEntity<?>> response;
+
+        Flight(String flightKey, String fingerprint, String storeKey, Supplier<Mono<ResponseEntity<?>>> action) {
+            this.fingerprint = fingerprint;
+            // cache(): 함께 기다리는 요청이 같은 결과를 받으며, 먼저 온 클라이언트가 끊어도 작성은 끝까지 진행된다
+            this.response = Mono.defer(action)
+                    .doOnNext(result -> store(storeKey, fingerprint, result))
+                    .doFinally(signal -> inFlight.remove(flightKey, this))
+                    .cache();
+        }
+    }
+}
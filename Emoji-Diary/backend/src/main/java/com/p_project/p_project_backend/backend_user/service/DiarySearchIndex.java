@@ -0,0 +1,489 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.backend_user.repository.DiaryRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiarySearchIndexProjection;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.Diary.Emotion;
+import com.p_project.p_project_backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 사용자별 일기 검색 색인 (메모리)
+ * 제목+본문을 글자 2-gram(bigram)으로 색인해, 검색어의 모든 bigram을 포함하는 일기를 후보로 찾는다.
+ * bigram이 모두 있어도 검색어가 이어져 있지 않을 수 있으므로("산책을" → "산책 ... 책을"), 후보가 검색어 전체를
+ * 포함하는지 DB에서 확인한다 (Matches). 결과는 SQL 검색(LIKE)과 같다. (검색어가 bigram 하나뿐이면 확인하지 않는다)
+ * 확인은 필요한 만큼만 한다: 페이지는 결과 순서대로 채워질 때까지, 전체 개수/패싯이 필요할 때만 후보 전체.
+ * 한국어 단어 중간("책을" → "산책을")도 찾을 수 있고, 기간/감정 조건까지 메모리에서 걸러 해당 페이지의 행만 DB에서 읽는다.
+ * - 게시 목록(posting list): 정렬된 일기 id의 차이값을 varint로 압축한 byte 배열
+ * - 첫 검색 시 사용자 단위로 만들고, 최근 사용 순으로 diary.search.index.max-users 명까지만 보관한다
+ * - 색인은 만들 때의 일기 변경 버전(users.diary_version)을 기억하고, 검색할 때마다 DB의 버전과 비교해 다르면 다시 만든다.
+ *   다른 서버(작업 워커 등)가 바꾼 일기는 이 서버에 알림이 오지 않으므로 버전으로만 알 수 있다.
+ * - 이 서버의 작성/수정/삭제/감정 변경은 커밋 후에 반영하고 버전을 함께 올린다. 색인 버전의 바로 다음 버전이 아니면
+ *   (사이에 다른 변경이 있었으면) 색인을 버리고 다음 검색에서 다시 만든다.
+ * 한 글자 단어는 색인하지 않으므로, 검색어가 한 글자 단어뿐이면 SQL 검색을 사용한다 (search가 빈 값 반환).
+ */
+@Component
+@RequiredArgsConstructor
+public class DiarySearchIndex {
+
+    private final DiaryRepository diaryRepository;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${diary.search.index.max-users:500}")
+    private int maxUsers;
+
+    private Map<Long, UserIndex> indexes;
+    private Counter buildCounter;
+
+    @PostConstruct
+    void init() {
+        // accessOrder=true: 최근 검색한 사용자 순, 용량 초과 시 가장 오래 검색하지 않은 사용자의 색인 제거
+        indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserIndex> eldest) {
+                return size() > maxUsers;
+            }
+        };
+        buildCounter = Counter.builder("diary.search.index.builds").register(meterRegistry);
+        Gauge.builder("diary.search.index.users", this, DiarySearchIndex::size).register(meterRegistry);
+    }
+
+    /**
+     * 검색 결과 (일기 id, 작성 날짜, 감정) - 날짜는 커서(키셋) 페이지 계산에, 감정은 검색 패싯 집계에 사용한다
+     */
+    public record Hit(Long diaryId, LocalDate date, Emotion emotion) {
+    }
+
+    /**
+     * 검색어와 조건에 맞는 일기 후보 (date, id 기준 최신순). 색인할 수 있는 검색어가 아니면 빈 값.
+     * 읽기 트랜잭션 안에서 호출하고, 반환된 Matches도 같은 트랜잭션 안에서 사용한다 (색인이 없으면 DB에서 만든다).
+     */
+    public Optional<Matches> search(Long userId, String keyword, LocalDate startDate, LocalDate endDate,
+            Collection<Emotion> emotions) {
+        Set<Integer> terms = bigrams(keyword);
+        if (terms.isEmpty()) {
+            return Optional.empty();
+        }
+        // 같은 읽기 트랜잭션에서 버전과 색인 원본을 읽으므로 같은 시점의 데이터다
+        long version = userRepository.findDiaryVersion(userId);
+        List<Hit> candidates = loadIndex(userId, version).search(terms, startDate, endDate,
+                emotions == null || emotions.isEmpty() ? null : Set.copyOf(emotions));
+        return Optional.of(new Matches(userId, keyword.trim(), candidates));
+    }
+
+    /**
+     * 색인 검색 후보와 확인 (LIKE '%검색어%'와 같은 조건을 DB에서 id만 돌려받아 확인)
+     */
+    public final class Matches {
+
+        // 한 번에 확인하는 최소 후보 수 (페이지가 작아도 쿼리 수가 늘지 않도록)
+        private static final int MIN_VERIFY_BATCH = 20;
+
+        private final Long userId;
+        private final String keyword;
+        private final List<Hit> candidates;
+        private final boolean exact;
+
+        private Matches(Long userId, String keyword, List<Hit> candidates) {
+            this.userId = userId;
+            this.keyword = keyword;
+            this.candidates = candidates;
+            // 글자/숫자 두 개짜리 검색어는 bigram이 있으면 그대로 포함된 것이다
+            this.exact = keyword.length() == 2
+                    && Character.isLetterOrDigit(keyword.charAt(0)) && Character.isLetterOrDigit(keyword.charAt(1));
+        }
+
+        /**
+         * 확인 전 후보 (커서 위치를 찾는 데 사용, 결과에는 확인된 것만 쓴다)
+         */
+        public List<Hit> candidates() {
+            return candidates;
+        }
+
+        /**
+         * 후보 전체를 확인한 결과 - 전체 개수/패싯이 필요할 때만 사용한다 (쿼리 1번)
+         */
+        public List<Hit> all() {
+            return verify(candidates);
+        }
+
+        /**
+         * 후보 from번째부터 순서대로 확인해 limit개까지 (페이지를 채울 만큼만 확인한다)
+         */
+        public List<Hit> next(int from, int limit) {
+            List<Hit> result = new ArrayList<>(limit);
+            int position = from;
+            while (result.size() < limit && position < candidates.size()) {
+                int batch = Math.max((limit - result.size()) * 2, MIN_VERIFY_BATCH);
+                List<Hit> verified = verify(candidates.subList(position, Math.min(position + batch,
+                        candidates.size())));
+                position += batch;
+                result.addAll(verified.subList(0, Math.min(verified.size(), limit - result.size())));
+            }
+            return result;
+        }
+
+        private List<Hit> verify(List<Hit> hits) {
+            if (exact || hits.isEmpty()) {
+                return hits;
+            }
+            Set<Long> matched = new HashSet<>(diaryRepository.findIdsContainingKeyword(userId,
+                    hits.stream().map(Hit::diaryId).toList(), keyword));
+            return hits.stream().filter(hit -> matched.contains(hit.diaryId())).toList();
+        }
+    }
+
+    /**
+     * 일기 작성/수정 반영 (커밋 후). 새 일기이거나 제목/본문이 그대로면 previousTitle/previousContent는 null.
+     * version은 이 변경으로 올린 일기 변경 버전이다 (아래 변경 메서드 모두 같음).
+     */
+    public void diarySaved(Diary diary, String previousTitle, String previousContent, long version) {
+        Long userId = diary.getUser().getId();
+        Long diaryId = diary.getId();
+        LocalDate date = diary.getDate();
+        Emotion emotion = diary.getEmotion();
+        Set<Integer> terms = bigrams(diary.getTitle(), diary.getContent());
+        Set<Integer> previousTerms = previousTitle != null || previousContent != null
+                ? bigrams(previousTitle, previousContent)
+                : null;
+        afterCommit(() -> applyChange(userId, version,
+                index -> index.put(diaryId, date, emotion, terms, previousTerms)));
+    }
+
+    public void diaryDeleted(Diary diary, long version) {
+        Long userId = diary.getUser().getId();
+        Long diaryId = diary.getId();
+        Set<Integer> terms = bigrams(diary.getTitle(), diary.getContent());
+        afterCommit(() -> applyChange(userId, version, index -> index.remove(diaryId, terms)));
+    }
+
+    /**
+     * 감정만 바뀐 경우 (비동기 분석 결과, 관리자 재분석)
+     */
+    public void emotionChanged(Long userId, Long diaryId, Emotion emotion, long version) {
+        afterCommit(() -> applyChange(userId, version, index -> index.updateEmotion(diaryId, emotion)));
+    }
+
+    /**
+     * 색인 내용과 관계없는 변경 (분석 상태, 이미지, AI 코멘트 등) - 버전만 올린다
+     */
+    public void versionChanged(Long userId, long version) {
+        afterCommit(() -> applyChange(userId, version, index -> { }));
+    }
+
+    public int size() {
+        synchronized (indexes) {
+            return indexes.size();
+        }
+    }
+
+    private UserIndex loadIndex(Long userId, long version) {
+        synchronized (indexes) {
+            UserIndex cached = indexes.get(userId);
+            if (cached != null && cached.version() == version) {
+                return cached;
+            }
+        }
+
+        UserIndex index = new UserIndex(version);
+        for (DiarySearchIndexProjection row : diaryRepository.findSearchIndexSource(userId)) {
+            index.put(row.getId(), row.getDate(), row.getEmotion(), bigrams(row.getTitle(), row.getContent()), null);
+        }
+        buildCounter.increment();
+        synchronized (indexes) {
+            // 그 사이 더 최신 버전으로 만든(또는 반영한) 색인이 있으면 그대로 둔다
+            UserIndex cached = indexes.get(userId);
+            if (cached == null || cached.version() < version) {
+                indexes.put(userId, index);
+            }
+        }
+        return index;
+    }
+
+    private void applyChange(Long userId, long version, Consumer<UserIndex> change) {
+        UserIndex index;
+        synchronized (indexes) {
+            index = indexes.get(userId);
+        }
+        // 색인이 없는 사용자는 다음 검색 때 DB에서 새로 만든다
+        if (index != null && !index.advance(version, change)) {
+            synchronized (indexes) {
+                indexes.remove(userId, index);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static Set<Integer> bigrams(String... texts) {
+        Set<Integer> keys = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            String normalized = text.toLowerCase(Locale.ROOT);
+            char previous = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                char current = normalized.charAt(i);
+                if (!Character.isLetterOrDigit(current)) {
+                    previous = 0;
+                    continue;
+                }
+                if (previous != 0) {
+                    keys.add(previous << 16 | current);
+                }
+                previous = current;
+            }
+        }
+        return keys;
+    }
+
+    private record DocMeta(LocalDate date, Emotion emotion) {
+    }
+
+    /**
+     * 한 사용자의 색인 (bigram → 게시 목록, 일기 id → 날짜/감정) - version: 반영된 일기 변경 버전
+     */
+    private static final class UserIndex {
+
+        private final Map<Integer, PostingList> postings = new HashMap<>();
+        private final Map<Long, DocMeta> docs = new HashMap<>();
+        private long version;
+
+        UserIndex(long version) {
+            this.version = version;
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        /**
+         * 바로 다음 버전의 변경이면 반영하고 버전을 올린다. 아니면 (사이의 변경을 놓쳤으므로) false.
+         */
+        synchronized boolean advance(long nextVersion, Consumer<UserIndex> change) {
+            if (nextVersion != version + 1) {
+                return false;
+            }
+            change.accept(this);
+            version = nextVersion;
+            return true;
+        }
+
+        synchronized void put(Long diaryId, LocalDate date, Emotion emotion, Set<Integer> terms,
+                Set<Integer> previousTerms) {
+            if (previousTerms == null && docs.containsKey(diaryId)) {
+                // 제목/본문이 그대로인 수정 - 게시 목록은 그대로 둔다
+                docs.put(diaryId, new DocMeta(date, emotion));
+                return;
+            }
+            if (previousTerms != null) {
+                for (Integer term : previousTerms) {
+                    if (!terms.contains(term)) {
+                        removePosting(term, diaryId);
+                    }
+                }
+            }
+            for (Integer term : terms) {
+                postings.computeIfAbsent(term, key -> new PostingList()).add(diaryId);
+            }
+            docs.put(diaryId, new DocMeta(date, emotion));
+        }
+
+        synchronized void remove(Long diaryId, Set<Integer> terms) {
+            for (Integer term : terms) {
+                removePosting(term, diaryId);
+            }
+            docs.remove(diaryId);
+        }
+
+        synchronized void updateEmotion(Long diaryId, Emotion emotion) {
+            docs.computeIfPresent(diaryId, (id, meta) -> new DocMeta(meta.date(), emotion));
+        }
+
+        synchronized List<Hit> search(Set<Integer> terms, LocalDate startDate, LocalDate endDate,
+                Set<Emotion> emotions) {
+            // 짧은 게시 목록부터 교집합을 구한다
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (Integer term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+
+            long[] matched = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && matched.length > 0; i++) {
+                matched = intersect(matched, lists.get(i).toArray());
+            }
+
+            List<Hit> result = new ArrayList<>(matched.length);
+            for (long diaryId : matched) {
+                DocMeta meta = docs.get(diaryId);
+                if (meta == null
+                        || (startDate != null && meta.date().isBefore(startDate))
+                        || (endDate != null && meta.date().isAfter(endDate))
+                        || (emotions != null && !emotions.contains(meta.emotion()))) {
+                    continue;
+                }
+                result.add(new Hit(diaryId, meta.date(), meta.emotion()));
+            }
+            result.sort(Comparator.comparing(Hit::date).thenComparing(Hit::diaryId).reversed());
+            return result;
+        }
+
+        private void removePosting(Integer term, Long diaryId) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(diaryId) && list.size() == 0) {
+                postings.remove(term);
+            }
+        }
+
+        private static long[] intersect(long[] left, long[] right) {
+            long[] result = new long[Math.min(left.length, right.length)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < left.length && j < right.length) {
+                if (left[i] < right[j]) {
+                    i++;
+                } else if (left[i] > right[j]) {
+                    j++;
+                } else {
+                    result[n++] = left[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, n);
+        }
+    }
+
+    /**
+     * 정렬된 일기 id 목록 (차이값 varint 인코딩)
+     * 새 일기는 id가 가장 크므로 보통 끝에 덧붙이고, 중간 삽입/삭제만 다시 인코딩한다.
+     */
+    static final class PostingList {
+
+        private byte[] data = new byte[8];
+        private int length;
+        private int count;
+        private long lastId;
+
+        int size() {
+            return count;
+        }
+
+        void add(long id) {
+            if (count == 0 || id > lastId) {
+                writeVarint(id - lastId);
+                lastId = id;
+                count++;
+                return;
+            }
+            long[] ids = toArray();
+            int position = Arrays.binarySearch(ids, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            long[] updated = new long[ids.length + 1];
+            System.arraycopy(ids, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+            encode(updated);
+        }
+
+        boolean remove(long id) {
+            long[] ids = toArray();
+            int position = Arrays.binarySearch(ids, id);
+            if (position < 0) {
+                return false;
+            }
+            long[] updated = new long[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, position);
+            System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+            encode(updated);
+            return true;
+        }
+
+        long[] toArray() {
+            long[] ids = new long[count];
+            long current = 0;
+            int offset = 0;
+            for (int i = 0; i < count; i++) {
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[offset++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                current += delta;
+                ids[i] = current;
+            }
+            return ids;
+        }
+
+        private void encode(long[] ids) {
+            data = new byte[Math.max(8, ids.length * 2)];
+            length = 0;
+            count = 0;
+            lastId = 0;
+            for (long id : ids) {
+                writeVarint(id - lastId);
+                lastId = id;
+                count++;
+            }
+        }
+
+        private void writeVarint(long value) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+            }
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+}
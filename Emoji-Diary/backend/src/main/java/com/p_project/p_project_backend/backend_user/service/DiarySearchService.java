@@ -0,0 +1,377 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.backend_user.dto.diary.DiarySearchFacetsResponse;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiarySearchResponse;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiarySearchSliceResponse;
+import com.p_project.p_project_backend.backend_user.repository.DiaryRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiarySearchFacetProjection;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchIndex.Hit;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchIndex.Matches;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.Diary.Emotion;
+import com.p_project.p_project_backend.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 일기 검색
+ * 검색 결과는 어느 경로든 LIKE 검색과 같다: 검색어 전체가 제목 또는 본문에 부분 문자열로 들어 있는 일기
+ * ("책을"로 "산책을"도 찾는다). diaries(title, content)의 FULLTEXT 인덱스(idx_diaries_title_content)는
+ * 그 일기들을 빠짐없이 포함하는 후보를 좁히는 데만 쓰고, 후보는 같은 쿼리의 LIKE 조건으로 다시 확인한다.
+ * 빠뜨리지 않는 후보 질의를 만들 수 없는 검색어(기본 파서의 한 단어 검색 등)는 LIKE로만 검색한다 (toFulltextQuery).
+ * 정렬: date(최신순, 기본) / relevance(관련도순, 같으면 최신순). 관련도는 FULLTEXT 점수이므로 후보 질의를 쓸 수 없는
+ * 검색어(MariaDB 기본 파서의 한 단어 검색 등)는 relevance를 요청해도 최신순이며, 응답의 sort에 실제 정렬을 담는다.
+ * 최신순 검색은 사용자별 메모리 색인(DiarySearchIndex)이 먼저 처리하고, 색인할 수 없는 검색어만 SQL로 넘어간다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DiarySearchService {
+
+    public static final String SORT_DATE = "date";
+    public static final String SORT_RELEVANCE = "relevance";
+
+    // 기간 조건이 없을 때 사용하는 범위 (MariaDB DATE 범위)
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final DiaryRepository diaryRepository;
+    private final DiarySearchIndex diarySearchIndex;
+
+    // 사용자별 메모리 색인 사용 여부 (DiarySearchIndex)
+    @Value("${diary.search.index.enabled:true}")
+    private boolean indexEnabled;
+
+    // DB의 innodb_ft_min_token_size와 맞춘다 (한국어는 2글자 단어가 많아 DB와 함께 2로 낮추는 것을 권장)
+    @Value("${diary.search.fulltext-min-token-length:3}")
+    private int minTokenLength;
+
+    // 검색 결과 본문 미리보기 최대 길이 (글자)
+    @Value("${diary.search.snippet-length:120}")
+    private int snippetLength;
+
+    // ngram 파서 인덱스 사용 여부 (MySQL 전용, MariaDB는 ngram 파서가 없다)
+    @Value("${diary.search.ngram:false}")
+    private boolean ngram;
+
+    /**
+     * withFacets=true이면 검색어/기간 조건의 감정별/월별 개수(facets)를 함께 내려준다.
+     * 색인 검색은 이미 읽은 결과로 세고, SQL 검색은 (연, 월, 감정) GROUP BY 한 번으로 센다.
+     */
+    public Map<String, Object> searchDiaries(User user, String keyword, LocalDate startDate,
+            LocalDate endDate, List<Emotion> emotions, String sort, int page, int limit, boolean withFacets) {
+        Pageable pageable = PageRequest.of(page - 1, limit);
+        List<String> terms = SearchSnippet.terms(keyword);
+
+        // 최신순 검색은 사용자별 메모리 색인으로 처리한다 (관련도순은 FULLTEXT 점수가 필요)
+        if (indexEnabled && !SORT_RELEVANCE.equalsIgnoreCase(sort)) {
+            // 패싯은 감정 필터 없이 세야 하므로, 감정 조건 없이 찾은 뒤 결과만 메모리에서 거른다
+            Optional<Matches> matched = diarySearchIndex.search(user.getId(), keyword, startDate, endDate,
+                    withFacets ? null : emotions);
+            if (matched.isPresent()) {
+                // 페이지 응답에는 전체 개수(total)가 들어가므로 후보 전체를 확인한다 (id만 돌려받는 쿼리 1번)
+                List<Hit> hits = matched.get().all();
+                DiarySearchFacetsResponse facets = null;
+                if (withFacets) {
+                    FacetCounts counts = new FacetCounts();
+                    hits.forEach(hit -> counts.add(YearMonth.from(hit.date()), hit.emotion(), 1));
+                    facets = counts.toResponse();
+                    if (emotions != null && !emotions.isEmpty()) {
+                        hits = hits.stream().filter(hit -> emotions.contains(hit.emotion())).toList();
+                    }
+                }
+                return toResponse(user, hits, terms, page, limit, facets);
+            }
+        }
+
+        String fulltextQuery = toFulltextQuery(keyword);
+        // 검색어가 없거나 색인되지 않는 짧은 단어뿐인 경우 LIKE 검색
+        String likeKeyword = keyword != null && !keyword.isBlank() ? keyword.trim() : null;
+
+        Page<Diary> diaryPage;
+        if (fulltextQuery != null) {
+            diaryPage = diaryRepository.searchDiariesFulltext(user.getId(), fulltextQuery, likeKeyword,
+                    startDate != null ? startDate : MIN_DATE,
+                    endDate != null ? endDate : MAX_DATE,
+                    emotionNames(emotions),
+                    SORT_RELEVANCE.equalsIgnoreCase(sort),
+                    pageable);
+        } else {
+            diaryPage = diaryRepository.searchDiaries(user, likeKeyword, startDate, endDate, emotions, pageable);
+        }
+
+        DiarySearchFacetsResponse facets = null;
+        if (withFacets) {
+            LocalDate from = startDate != null ? startDate : MIN_DATE;
+            LocalDate to = endDate != null ? endDate : MAX_DATE;
+            facets = toFacets(fulltextQuery != null
+                    ? diaryRepository.countFacetsFulltext(user.getId(), fulltextQuery, likeKeyword, from, to)
+                    : diaryRepository.countFacets(user, likeKeyword, from, to));
+        }
+
+        List<DiarySearchResponse> diaryResponses = diaryPage.getContent().stream()
+                .map(diary -> buildDiarySearchResponse(diary, terms))
+                .collect(Collectors.toList());
+
+        // FULLTEXT 후보 질의가 없으면 관련도 점수도 없으므로 최신순으로 내려간다
+        String appliedSort = fulltextQuery != null && SORT_RELEVANCE.equalsIgnoreCase(sort)
+                ? SORT_RELEVANCE : SORT_DATE;
+        return pageResponse(diaryPage.getTotalElements(), page, limit, diaryPage.getTotalPages(), appliedSort,
+                diaryResponses, facets);
+    }
+
+    /**
+     * 색인 검색 결과(최신순 id) 중 요청한 페이지의 일기만 DB에서 읽는다.
+     */
+    private Map<String, Object> toResponse(User user, List<Hit> matched, List<String> terms, int page, int limit,
+            DiarySearchFacetsResponse facets) {
+        int from = Math.min((page - 1) * limit, matched.size());
+        List<DiarySearchResponse> diaryResponses = loadInOrder(user,
+                matched.subList(from, Math.min(from + limit, matched.size()))).stream()
+                .map(diary -> buildDiarySearchResponse(diary, terms))
+                .collect(Collectors.toList());
+
+        return pageResponse(matched.size(), page, limit, (matched.size() + limit - 1) / limit, SORT_DATE,
+                diaryResponses, facets);
+    }
+
+    private static Map<String, Object> pageResponse(long total, int page, int limit, int totalPages, String sort,
+            List<DiarySearchResponse> diaries, DiarySearchFacetsResponse facets) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("total", total);
+        response.put("page", page);
+        response.put("limit", limit);
+        response.put("totalPages", totalPages);
+        response.put("sort", sort); // 실제 적용된 정렬 (relevance 요청이 date로 바뀌었을 수 있음)
+        response.put("diaries", diaries);
+        if (facets != null) {
+            response.put("facets", facets);
+        }
+        return response;
+    }
+
+    private static DiarySearchFacetsResponse toFacets(List<DiarySearchFacetProjection> rows) {
+        FacetCounts counts = new FacetCounts();
+        for (DiarySearchFacetProjection row : rows) {
+            counts.add(YearMonth.of(row.getDiaryYear(), row.getDiaryMonth()), row.getEmotion(),
+                    row.getDiaryCount());
+        }
+        return counts.toResponse();
+    }
+
+    /**
+     * (월, 감정)별 개수를 감정별/월별 합계로 모은다
+     */
+    private static final class FacetCounts {
+        private final Map<Emotion, Long> emotions = new EnumMap<>(Emotion.class);
+        private final Map<YearMonth, Long> months = new TreeMap<>(Comparator.reverseOrder());
+
+        FacetCounts() {
+            for (Emotion emotion : Emotion.values()) {
+                emotions.put(emotion, 0L);
+            }
+        }
+
+        void add(YearMonth month, Emotion emotion, long count) {
+            emotions.merge(emotion, count, Long::sum);
+            months.merge(month, count, Long::sum);
+        }
+
+        DiarySearchFacetsResponse toResponse() {
+            Map<String, Long> emotionCounts = new LinkedHashMap<>();
+            emotions.forEach((emotion, count) -> emotionCounts.put(emotion.name(), count));
+            Map<String, Long> monthCounts = new LinkedHashMap<>();
+            months.forEach((month, count) -> monthCounts.put(month.toString(), count));
+            return new DiarySearchFacetsResponse(emotionCounts, monthCounts);
+        }
+    }
+
+    /**
+     * 커서(키셋) 방식 검색 (무한 스크롤)
+     * (date, id) 최신순으로 cursor 다음부터 limit개를 읽는다. OFFSET 없이 다음 행부터 읽고 COUNT도 하지 않으므로
+     * 몇 년 치를 스크롤해도 페이지당 비용이 같다. 전체 개수는 첫 페이지에서 withTotal=true일 때 한 번만 센다.
+     * 관련도순 정렬은 지원하지 않는다 (키가 (date, id)로 고정).
+     */
+    public DiarySearchSliceResponse scrollDiaries(User user, String keyword, LocalDate startDate, LocalDate endDate,
+            List<Emotion> emotions, String cursor, int limit, boolean withTotal) {
+        SearchCursor after = SearchCursor.decode(cursor);
+        boolean countTotal = withTotal && after == null;
+        SearchCursor keyset = after != null ? after : SearchCursor.FIRST;
+        List<String> terms = SearchSnippet.terms(keyword);
+
+        if (indexEnabled) {
+            Optional<Matches> matched = diarySearchIndex.search(user.getId(), keyword, startDate, endDate,
+                    emotions);
+            if (matched.isPresent()) {
+                // 커서 위치는 확인 전 후보에서 찾고, 그 뒤로는 이번 페이지(+다음 페이지 여부 1개)만큼만 확인한다
+                List<Hit> candidates = matched.get().candidates();
+                int from = 0;
+                while (from < candidates.size() && !keyset.isBefore(candidates.get(from))) {
+                    from++;
+                }
+                List<Hit> page = matched.get().next(from, limit + 1);
+                boolean hasNext = page.size() > limit;
+                return toSliceResponse(loadInOrder(user, page.subList(0, Math.min(limit, page.size()))), terms,
+                        hasNext, countTotal ? (long) matched.get().all().size() : null);
+            }
+        }
+
+        Pageable pageable = PageRequest.of(0, limit);
+        LocalDate from = startDate != null ? startDate : MIN_DATE;
+        LocalDate to = endDate != null ? endDate : MAX_DATE;
+        String fulltextQuery = toFulltextQuery(keyword);
+        String likeKeyword = keyword != null && !keyword.isBlank() ? keyword.trim() : null;
+
+        Slice<Diary> slice;
+        Long total = null;
+        if (fulltextQuery != null) {
+            List<String> emotionNames = emotionNames(emotions);
+            slice = diaryRepository.scrollDiariesFulltext(user.getId(), fulltextQuery, likeKeyword, from, to,
+                    emotionNames, keyset.date(), keyset.id(), pageable);
+            if (countTotal) {
+                total = diaryRepository.countDiariesFulltext(user.getId(), fulltextQuery, likeKeyword, from, to,
+                        emotionNames);
+            }
+        } else {
+            List<Emotion> emotionFilter = emotions == null || emotions.isEmpty()
+                    ? Arrays.asList(Emotion.values())
+                    : emotions;
+            slice = diaryRepository.scrollDiaries(user, likeKeyword, from, to, emotionFilter,
+                    keyset.date(), keyset.id(), pageable);
+            if (countTotal) {
+                total = diaryRepository.countDiaries(user, likeKeyword, from, to, emotionFilter);
+            }
+        }
+        return toSliceResponse(slice.getContent(), terms, slice.hasNext(), total);
+    }
+
+    private DiarySearchSliceResponse toSliceResponse(List<Diary> diaries, List<String> terms, boolean hasNext,
+            Long total) {
+        Diary last = diaries.isEmpty() ? null : diaries.get(diaries.size() - 1);
+        return DiarySearchSliceResponse.builder()
+                .diaries(diaries.stream()
+                        .map(diary -> buildDiarySearchResponse(diary, terms))
+                        .collect(Collectors.toList()))
+                .hasNext(hasNext)
+                .nextCursor(hasNext && last != null ? new SearchCursor(last.getDate(), last.getId()).encode() : null)
+                .total(total)
+                .build();
+    }
+
+    /**
+     * 색인 결과 순서대로 일기를 읽는다 (DB에서 이미 삭제된 일기는 제외)
+     */
+    private List<Diary> loadInOrder(User user, List<Hit> hits) {
+        Map<Long, Diary> diaries = diaryRepository.findByUserAndIdIn(user,
+                hits.stream().map(Hit::diaryId).collect(Collectors.toList())).stream()
+                .filter(diary -> diary.getDeletedAt() == null)
+                .collect(Collectors.toMap(Diary::getId, Function.identity()));
+        return hits.stream()
+                .map(hit -> diaries.get(hit.diaryId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 검색 커서 (마지막으로 받은 일기의 date, id) - "yyyy-MM-dd:id"를 Base64(URL)로 감싼 불투명한 문자열
+     */
+    private record SearchCursor(LocalDate date, Long id) {
+
+        static final SearchCursor FIRST = new SearchCursor(MAX_DATE, Long.MAX_VALUE);
+
+        static SearchCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split(":");
+                return new SearchCursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("잘못된 검색 커서입니다");
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((date + ":" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        // 최신순에서 hit이 이 커서보다 뒤(다음 페이지)에 있는지
+        boolean isBefore(Hit hit) {
+            int compare = hit.date().compareTo(date);
+            return compare < 0 || (compare == 0 && hit.diaryId() < id);
+        }
+    }
+
+    /**
+     * 검색어 → BOOLEAN MODE 후보 질의 (모든 단어 필수). 후보에는 검색어 전체를 포함하는 일기가 빠짐없이 들어가야 한다.
+     * - ngram 파서: 단어 중간도 n-gram으로 색인되므로 모든 단어를 구문(+"단어")으로 찾는다.
+     * - 기본 파서: 단어 단위 색인이라 단어 중간은 찾을 수 없다. 검색어의 첫 단어는 문서 단어의 중간/끝일 수 있어 빼고,
+     *   앞뒤가 공백인 가운데 단어는 온전한 단어(+단어), 마지막 단어는 단어의 앞부분(+단어*)으로 찾는다.
+     * 인덱스 최소 길이보다 짧거나 글자/숫자 외의 문자가 섞인 단어도 뺀다 (후보가 넓어질 뿐 LIKE 확인 후 결과는 같다).
+     * 쓸 수 있는 단어가 없으면 null (LIKE 검색).
+     */
+    String toFulltextQuery(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        String[] tokens = keyword.trim().split("\\s+");
+        List<String> terms = new ArrayList<>();
+        for (int i = ngram ? 0 : 1; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (token.codePointCount(0, token.length()) < minTokenLength
+                    || !token.codePoints().allMatch(Character::isLetterOrDigit)) {
+                continue;
+            }
+            if (ngram) {
+                terms.add("+\"" + token + "\"");
+            } else {
+                terms.add(i == tokens.length - 1 ? "+" + token + "*" : "+" + token);
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    private static List<String> emotionNames(List<Emotion> emotions) {
+        List<Emotion> filter = emotions == null || emotions.isEmpty() ? Arrays.asList(Emotion.values()) : emotions;
+        return filter.stream().map(Emotion::name).collect(Collectors.toList());
+    }
+
+    private DiarySearchResponse buildDiarySearchResponse(Diary diary, List<String> terms) {
+        SearchSnippet snippet = SearchSnippet.of(diary.getContent(), terms, snippetLength);
+        return DiarySearchResponse.builder()
+                .id(diary.getId())
+                .date(diary.getDate())
+                .title(diary.getTitle())
+                .snippet(snippet.snippet())
+                .highlights(snippet.highlights())
+                .emotion(diary.getEmotion().name())
+                .weather(diary.getWeather() != null ? diary.getWeather().name() : null)
+                .build();
+    }
+}
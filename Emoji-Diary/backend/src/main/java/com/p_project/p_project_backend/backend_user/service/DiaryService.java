@@ -3,95 +3,292 @@ package com.p_project.p_project_backend.backend_user.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.p_project.p_project_backend.backend_user.dto.ai.AiServerRequest;
 import com.p_project.p_project_backend.backend_user.dto.ai.AiServiceResult;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryAnalysisStatusResponse;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryCalendarRangeResponse;
 import com.p_project.p_project_backend.backend_user.dto.diary.DiaryCreateRequest;
 import com.p_project.p_project_backend.backend_user.dto.diary.DiaryUpdateRequest;
 import com.p_project.p_project_backend.backend_user.dto.diary.DiaryMonthlyResponse;
 import com.p_project.p_project_backend.backend_user.dto.diary.DiaryResponse;
-import com.p_project.p_project_backend.backend_user.dto.diary.DiarySearchResponse;
 import com.p_project.p_project_backend.backend_user.dto.diary.DiarySummaryResponse;
 import com.p_project.p_project_backend.backend_user.repository.DiaryActivityRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiaryCalendarProjection;
+import com.p_project.p_project_backend.backend_user.repository.DiaryContentBatchRepository;
 import com.p_project.p_project_backend.backend_user.repository.DiaryImageRepository;
 import com.p_project.p_project_backend.backend_user.repository.DiaryRepository;
+import com.p_project.p_project_backend.entity.AiJob;
 import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.Diary.AnalysisStatus;
 import com.p_project.p_project_backend.entity.Diary.Emotion;
+import com.p_project.p_project_backend.entity.Diary.ImageStatus;
+import com.p_project.p_project_backend.entity.Diary.Weather;
 import com.p_project.p_project_backend.entity.DiaryActivity;
 import com.p_project.p_project_backend.entity.DiaryImage;
 import com.p_project.p_project_backend.entity.User;
+import com.p_project.p_project_backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class DiaryService {
 
     private final DiaryRepository diaryRepository;
     private final AiService aiService;
     private final DiaryActivityRepository diaryActivityRepository;
     private final DiaryImageRepository diaryImageRepository;
+    private final DiaryContentBatchRepository diaryContentBatchRepository;
     private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final AiJobService aiJobService;
+    private final ImageVariantService imageVariantService;
+    private final DiarySearchIndex diarySearchIndex;
+    private final UserRepository userRepository;
+
+    // 대체 결과로 저장된 일기를 재분석하기까지 기다리는 시간 (AI 서버 회복 대기)
+    @Value("${diary.jobs.degraded-delay:60s}")
+    private Duration degradedReanalysisDelay;
+
+    // 여러 달 캘린더 최대 조회 범위 (연간 보기 = 12개월)
+    @Value("${diary.calendar.max-range-months:12}")
+    private int maxCalendarRangeMonths;
+
+    private static final char CALENDAR_EMPTY_DAY = '-';
+    private static final char CALENDAR_UNRESOLVED_DAY = '?';
+
+    private static final String DUPLICATE_DIARY_MESSAGE = "이미 해당 날짜에 작성된 일기가 있습니다. 기존 일기를 수정해주세요.";
+
+    /**
+     * 일기 작성
+     * AI 호출 동안 DB 커넥션과 요청 스레드를 점유하지 않도록 3단계로 나누어 처리한다.
+     * 1) 짧은 읽기 트랜잭션으로 중복 검증 2) 트랜잭션 없이 Non-blocking AI 텍스트 분석 3) 짧은 쓰기 트랜잭션으로 저장
+     * JPA 단계는 블로킹이므로 boundedElastic 스케줄러에서 실행한다.
+     * 이미지는 기다리지 않고 imageStatus=PENDING으로 저장하며, 같은 트랜잭션에서 등록한 IMAGE 작업이 이후에 채운다.
+     * Mono를 조립해 바로 반환하므로 @Transactional을 붙이지 않는다 (붙여도 조립하는 동안에만 적용된다).
+     * 트랜잭션 경계는 inReadTransaction/inWriteTransaction뿐이다.
+     */
+    public Mono<DiaryResponse> createDiary(User user, DiaryCreateRequest request) {
+        return Mono.<Void>fromRunnable(() -> inReadTransaction(() -> validateDuplicateDiary(user, request.getDate())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.defer(() -> analyzeDiaryContent(user, request.getContent(), request.getWeather(),
+                        AiMetrics.Operation.CREATE)))
+                .publishOn(Schedulers.boundedElastic())
+                .map(aiResult -> saveNewDiary(user, request, aiResult));
+    }
 
+    /**
+     * 비동기 작성 모드: AI 분석 없이 PENDING 상태로 먼저 저장한다.
+     * 같은 트랜잭션에서 TEXT 작업을 등록하고, DiaryAnalysisService 워커가 분석한 뒤 applyAnalysisResult로 반영한다.
+     */
     @Transactional
-    public DiaryResponse createDiary(User user, DiaryCreateRequest request) {
+    public DiaryResponse createPendingDiary(User user, DiaryCreateRequest request) {
         validateDuplicateDiary(user, request.getDate());
 
-        AiServiceResult aiResult = analyzeDiaryContent(user, request.getContent(), request.getWeather());
-        Diary diary = buildDiaryEntity(user, request, aiResult);
+        Diary diary = buildPendingDiaryEntity(user, request);
         Diary savedDiary = diaryRepository.save(diary);
+        aiJobService.enqueue(savedDiary, AiJob.Phase.TEXT, Duration.ZERO);
+        diarySearchIndex.diarySaved(savedDiary, null, null, nextDiaryVersion(savedDiary));
 
         saveDiaryContents(savedDiary, request.getActivities(), request.getImages());
 
         return buildDiaryResponse(savedDiary, request.getActivities(), request.getImages());
     }
 
+    /**
+     * TEXT 작업의 분석 결과 반영
+     * 분석 중 일기가 수정되어 수정 요청이 직접 분석을 마쳤거나(COMPLETED) 내용/날씨가 바뀌었다면
+     * 이전 입력으로 만든 결과이므로 버린다. (applyImageResult와 같은 방식)
+     *
+     * @return 반영된 상태, 버렸으면 빈 값
+     */
     @Transactional
-    public DiaryResponse updateDiary(User user, Long diaryId, DiaryUpdateRequest request) {
-        Diary diary = getOwnedDiary(user, diaryId);
+    public Optional<DiaryAnalysisStatusResponse> applyAnalysisResult(Long diaryId, String content, Weather weather,
+            AiServiceResult aiResult) {
+        return findAnalysisPendingDiary(diaryId, content, weather).map(diary -> {
+            applyAiResult(diary, aiResult);
+            diary.setUpdatedAt(LocalDateTime.now());
+            enqueueFollowUpJobs(diary);
+            diarySearchIndex.emotionChanged(diary.getUser().getId(), diary.getId(), diary.getEmotion(),
+                    nextDiaryVersion(diary));
+            return buildAnalysisStatusResponse(diary);
+        });
+    }
 
-        // Check if content, weather, or persona has changed
-        boolean contentChanged = !diary.getContent().equals(request.getContent());
-        boolean weatherChanged = diary.getWeather() != request.getWeather();
-        boolean personaChanged = diary.getPersona() != user.getPersona();
+    @Transactional
+    public DiaryAnalysisStatusResponse markAnalysisFailed(Long diaryId) {
+        Diary diary = diaryRepository.findById(diaryId)
+                .orElseThrow(() -> new com.p_project.p_project_backend.exception.DiaryNotFoundException(
+                        "Diary not found"));
+
+        // 그 사이 수정 요청이 분석을 마친 일기는 그대로 둔다
+        if (isAnalysisPending(diary)) {
+            diary.setAnalysisStatus(AnalysisStatus.FAILED);
+            // 텍스트 분석이 실패하면 이미지 단계도 진행하지 않는다
+            diary.setImageStatus(ImageStatus.FAILED);
+            diary.setUpdatedAt(LocalDateTime.now());
+            diaryChanged(diary);
+        }
 
-        if (contentChanged || weatherChanged || personaChanged) {
-            // If any critical field changed, trigger AI analysis (Smart Update)
-            AiServiceResult aiResult = analyzeDiaryContent(user, request.getContent(), request.getWeather());
-            updateDiaryEntity(diary, request, aiResult);
-        } else {
-            // Only metadata changed (title, mood, activities, images), skip AI
-            updateDiaryEntityPartial(diary, request);
+        return buildAnalysisStatusResponse(diary);
+    }
+
+    /**
+     * 비동기 작성 일기의 첫 분석이 실패하면 재시도를 기다리는 동안 대체 결과(DEGRADED)를 보여준다.
+     * 이미 DEGRADED인 일기는 그대로 둔다. (재시도는 AiJobService가 예약)
+     */
+    @Transactional
+    public DiaryAnalysisStatusResponse markAnalysisDegraded(Long diaryId) {
+        Diary diary = diaryRepository.findById(diaryId)
+                .orElseThrow(() -> new com.p_project.p_project_backend.exception.DiaryNotFoundException(
+                        "Diary not found"));
+
+        if (diary.getAnalysisStatus() == AnalysisStatus.PENDING) {
+            applyAiResult(diary, degradedResult());
+            diary.setUpdatedAt(LocalDateTime.now());
+            diarySearchIndex.emotionChanged(diary.getUser().getId(), diary.getId(), diary.getEmotion(),
+                    nextDiaryVersion(diary));
         }
 
-        deleteDiaryContents(diary);
-        saveDiaryContents(diary, request.getActivities(), request.getImages());
+        return buildAnalysisStatusResponse(diary);
+    }
 
-        return buildDiaryResponse(diary, request.getActivities(), request.getImages());
+    /**
+     * AI 작업 실행에 필요한 요청을 만든다. 일기가 삭제되었거나 더 이상 해당 단계가 필요 없으면 빈 값.
+     * 페르소나는 작성 시점 스냅샷을 사용한다.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AiServerRequest> buildJobRequest(Long diaryId, AiJob.Phase phase) {
+        return diaryRepository.findById(diaryId)
+                .filter(diary -> diary.getDeletedAt() == null)
+                .filter(diary -> phase == AiJob.Phase.TEXT
+                        ? diary.getAnalysisStatus() == AnalysisStatus.PENDING
+                                || diary.getAnalysisStatus() == AnalysisStatus.DEGRADED
+                        : diary.getImageStatus() == ImageStatus.PENDING)
+                .map(diary -> AiServerRequest.builder()
+                        .content(diary.getContent())
+                        .weather(diary.getWeather())
+                        .persona(diary.getPersona())
+                        .gender(diary.getUser().getGender())
+                        .userId(diary.getUser().getId())
+                        .build());
     }
 
-    public DiaryResponse getDiary(User user, Long diaryId) {
+    /**
+     * 이미지 생성 단계 결과 반영
+     * 생성 중 일기 내용/날씨가 다시 수정되었다면 이전 입력으로 만든 이미지이므로 버린다.
+     *
+     * @return 반영 여부
+     */
+    @Transactional
+    public boolean applyImageResult(Long diaryId, String content, Weather weather, String imageUrl,
+            ImageVariantService.ImageVariants variants) {
+        Optional<Diary> diary = findImagePendingDiary(diaryId, content, weather);
+        diary.ifPresent(d -> {
+            d.setImageUrl(imageUrl);
+            setImageVariants(d, variants);
+            d.setImageStatus(ImageStatus.READY);
+            diaryChanged(d);
+        });
+        return diary.isPresent();
+    }
+
+    @Transactional
+    public boolean markImageFailed(Long diaryId, String content, Weather weather) {
+        Optional<Diary> diary = findImagePendingDiary(diaryId, content, weather);
+        diary.ifPresent(d -> {
+            d.setImageStatus(ImageStatus.FAILED);
+            diaryChanged(d);
+        });
+        return diary.isPresent();
+    }
+
+    @Transactional(readOnly = true)
+    public DiaryAnalysisStatusResponse getAnalysisStatus(User user, Long diaryId) {
         Diary diary = getOwnedDiary(user, diaryId);
-        return buildDiaryResponse(diary, null, null);
+        return buildAnalysisStatusResponse(diary);
+    }
+
+    /**
+     * 일기 수정
+     * createDiary와 동일하게 읽기 트랜잭션 → (필요 시) 트랜잭션 밖 AI 분석 → 쓰기 트랜잭션 순서로 처리한다.
+     */
+    public Mono<DiaryResponse> updateDiary(User user, Long diaryId, DiaryUpdateRequest request) {
+        return Mono.fromCallable(() -> inReadTransaction(
+                () -> requiresAnalysis(getOwnedDiary(user, diaryId), user, request)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(analysisRequired -> analyzeIfRequired(analysisRequired, user, request))
+                .publishOn(Schedulers.boundedElastic())
+                .map(aiResult -> saveUpdatedDiary(user, diaryId, request, aiResult.orElse(null)));
+    }
+
+    /**
+     * 일기 상세 조회
+     * 일기, 활동, 이미지를 작성자 조건과 함께 한 번의 쿼리로 가져온다.
+     * 다른 사용자의 일기는 존재 여부를 드러내지 않도록 없는 일기와 같게 처리한다.
+     */
+    @Transactional(readOnly = true)
+    public DiaryResponse getDiary(User user, Long diaryId) {
+        Diary diary = diaryRepository.findDetailByIdAndUser(diaryId, user)
+                .orElseThrow(() -> new IllegalArgumentException("Diary not found"));
+        return buildDiaryDetailResponse(diary);
     }
 
+    @Transactional(readOnly = true)
     public DiaryResponse getDiaryByDate(User user, LocalDate date) {
-        Diary diary = diaryRepository.findByUserAndDate(user, date)
+        Diary diary = diaryRepository.findDetailByUserAndDate(user, date)
                 .orElseThrow(() -> new com.p_project.p_project_backend.exception.DiaryNotFoundException(
                         "해당 날짜에 작성된 일기가 없습니다"));
-        return buildDiaryResponse(diary, null, null);
+        return buildDiaryDetailResponse(diary);
     }
 
+    /**
+     * 내보내기용 일기 묶음 - (date, id) 순으로 (afterDate, afterId) 다음부터 최대 limit개, 활동/이미지 포함 (쿼리 2번)
+     * 묶음마다 짧은 읽기 트랜잭션으로 끝나므로, 느린 다운로드 동안 DB 커넥션을 붙잡지 않는다.
+     */
+    @Transactional(readOnly = true)
+    public List<DiaryResponse> getDiariesForExport(User user, LocalDate afterDate, Long afterId, int limit) {
+        List<Long> ids = diaryRepository.findExportIds(user, afterDate, afterId, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return diaryRepository.findDetailsByIdIn(ids).stream()
+                .map(this::buildDiaryDetailResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
     public DiaryMonthlyResponse getMonthlyDiaries(User user, int year, int month) {
         LocalDate startDate = LocalDate.of(year, month, 1);
         LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
 
         List<DiarySummaryResponse> diaries = diaryRepository
-                .findByUserAndDateBetweenAndDeletedAtIsNull(user, startDate, endDate).stream()
+                .findCalendarByUserAndDateBetween(user, startDate, endDate).stream()
                 .map(this::buildDiarySummaryResponse)
                 .collect(Collectors.toList());
 
@@ -102,24 +299,46 @@ public class DiaryService {
                 .build();
     }
 
+    /**
+     * 여러 달 캘린더 (연간 보기 등) - 한 번의 쿼리로 읽어 달마다 일별 문자열로 압축한다.
+     */
     @Transactional(readOnly = true)
-    public java.util.Map<String, Object> searchDiaries(User user, String keyword, LocalDate startDate,
-            LocalDate endDate, List<Emotion> emotions, int page, int limit) {
-        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page - 1,
-                limit);
-        org.springframework.data.domain.Page<Diary> diaryPage = diaryRepository.searchDiaries(user, keyword, startDate,
-                endDate, emotions, pageable);
-
-        List<DiarySearchResponse> diaryResponses = diaryPage.getContent().stream()
-                .map(this::buildDiarySearchResponse)
-                .collect(Collectors.toList());
+    public DiaryCalendarRangeResponse getCalendarRange(User user, YearMonth from, YearMonth to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("조회 종료 월이 시작 월보다 앞설 수 없습니다");
+        }
+        if (from.until(to, ChronoUnit.MONTHS) >= maxCalendarRangeMonths) {
+            throw new IllegalArgumentException("캘린더는 최대 " + maxCalendarRangeMonths + "개월까지 조회할 수 있습니다");
+        }
+
+        Map<YearMonth, char[]> daysByMonth = new LinkedHashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            char[] days = new char[month.lengthOfMonth()];
+            Arrays.fill(days, CALENDAR_EMPTY_DAY);
+            daysByMonth.put(month, days);
+        }
+        for (DiaryCalendarProjection row : diaryRepository.findCalendarByUserAndDateBetween(
+                user, from.atDay(1), to.atEndOfMonth())) {
+            daysByMonth.get(YearMonth.from(row.getDate()))[row.getDate().getDayOfMonth() - 1] = calendarCode(row);
+        }
 
-        return java.util.Map.of(
-                "total", diaryPage.getTotalElements(),
-                "page", page,
-                "limit", limit,
-                "totalPages", diaryPage.getTotalPages(),
-                "diaries", diaryResponses);
+        return DiaryCalendarRangeResponse.builder()
+                .from(from.toString())
+                .to(to.toString())
+                .emotions(Arrays.stream(Emotion.values()).map(Emotion::name).collect(Collectors.toList()))
+                .months(daysByMonth.entrySet().stream()
+                        .map(entry -> new DiaryCalendarRangeResponse.MonthDays(
+                                entry.getKey().toString(), new String(entry.getValue())))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static char calendarCode(DiaryCalendarProjection row) {
+        AnalysisStatus status = resolveAnalysisStatus(row.getAnalysisStatus());
+        if (status == AnalysisStatus.PENDING || status == AnalysisStatus.FAILED) {
+            return CALENDAR_UNRESOLVED_DAY;
+        }
+        return (char) ('0' + row.getEmotion().ordinal());
     }
 
     @Transactional
@@ -127,16 +346,77 @@ public class DiaryService {
         Diary diary = getOwnedDiary(user, diaryId);
         deleteDiaryContents(diary);
         diaryRepository.delete(diary);
+        diarySearchIndex.diaryDeleted(diary, nextDiaryVersion(diary));
     }
 
     // --- Helper Methods ---
 
+    // 검색 색인과 관계없는 변경 (상태, 이미지) - 일기 변경 버전만 올린다
+    private void diaryChanged(Diary diary) {
+        diarySearchIndex.versionChanged(diary.getUser().getId(), nextDiaryVersion(diary));
+    }
+
+    /**
+     * 작성자의 일기 변경 버전을 올리고 새 버전을 반환한다 (캘린더/상세/통계 응답의 ETag, 검색 색인 버전이 바뀜)
+     * 일기를 바꾸는 모든 경로에서 diaryChanged 또는 검색 색인 변경 메서드에 넘겨 한 번씩 호출한다.
+     */
+    private long nextDiaryVersion(Diary diary) {
+        Long userId = diary.getUser().getId();
+        userRepository.incrementDiaryVersion(userId);
+        return userRepository.findDiaryVersion(userId);
+    }
+
     private void validateDuplicateDiary(User user, LocalDate date) {
         if (diaryRepository.findByUserAndDate(user, date).isPresent()) {
-            throw new IllegalArgumentException("이미 해당 날짜에 작성된 일기가 있습니다. 기존 일기를 수정해주세요.");
+            throw new IllegalArgumentException(DUPLICATE_DIARY_MESSAGE);
         }
     }
 
+    private Optional<Diary> findAnalysisPendingDiary(Long diaryId, String content, Weather weather) {
+        // 삭제되었거나, 다른 경로에서 이미 분석되었거나, 입력이 바뀐 일기는 대상이 아니다
+        return diaryRepository.findById(diaryId)
+                .filter(diary -> diary.getDeletedAt() == null)
+                .filter(this::isAnalysisPending)
+                .filter(diary -> diary.getContent().equals(content) && diary.getWeather() == weather);
+    }
+
+    private boolean isAnalysisPending(Diary diary) {
+        return diary.getAnalysisStatus() == AnalysisStatus.PENDING
+                || diary.getAnalysisStatus() == AnalysisStatus.DEGRADED;
+    }
+
+    private Optional<Diary> findImagePendingDiary(Long diaryId, String content, Weather weather) {
+        // 삭제되었거나 입력이 바뀐 일기는 대상이 아니다
+        return diaryRepository.findById(diaryId)
+                .filter(diary -> diary.getImageStatus() == ImageStatus.PENDING)
+                .filter(diary -> diary.getContent().equals(content) && diary.getWeather() == weather);
+    }
+
+    private boolean requiresAnalysis(Diary diary, User user, DiaryUpdateRequest request) {
+        // Check if content, weather, or persona has changed
+        boolean contentChanged = !diary.getContent().equals(request.getContent());
+        boolean weatherChanged = diary.getWeather() != request.getWeather();
+        boolean personaChanged = diary.getPersona() != user.getPersona();
+        return contentChanged || weatherChanged || personaChanged;
+    }
+
+    private <T> T inReadTransaction(Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> action.get());
+    }
+
+    private void inReadTransaction(Runnable action) {
+        inReadTransaction(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T inWriteTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
     private Diary getOwnedDiary(User user, Long diaryId) {
         Diary diary = diaryRepository.findById(diaryId)
                 .orElseThrow(() -> new IllegalArgumentException("Diary not found"));
@@ -147,25 +427,90 @@ public class DiaryService {
         return diary;
     }
 
-    private AiServiceResult analyzeDiaryContent(User user, String content,
-            com.p_project.p_project_backend.entity.Diary.Weather weather) {
+    private Mono<AiServiceResult> analyzeDiaryContent(User user, String content,
+            com.p_project.p_project_backend.entity.Diary.Weather weather, AiMetrics.Operation operation) {
         AiServerRequest aiRequest = buildAiRequest(user, content, weather);
-        return aiService.analyzeDiary(aiRequest);
+        return aiService.analyzeTextAsync(aiRequest)
+                .contextWrite(AiMetrics.operation(operation))
+                .onErrorResume(e -> {
+                    // AI 서버 장애/지연이 일기 작성 실패로 이어지지 않도록 대체 결과로 저장하고 나중에 재분석한다
+                    log.warn("AI 텍스트 분석 실패, 대체 결과로 저장합니다: {}", e.getMessage());
+                    return Mono.just(degradedResult());
+                });
+    }
+
+    private AiServiceResult degradedResult() {
+        return AiServiceResult.builder()
+                .emotion(Emotion.중립.name())
+                .degraded(true)
+                .build();
+    }
+
+    private Mono<Optional<AiServiceResult>> analyzeIfRequired(boolean analysisRequired, User user,
+            DiaryUpdateRequest request) {
+        if (!analysisRequired) {
+            // Only metadata changed (title, mood, activities, images), skip AI
+            return Mono.just(Optional.empty());
+        }
+        // If any critical field changed, trigger AI analysis (Smart Update)
+        return analyzeDiaryContent(user, request.getContent(), request.getWeather(), AiMetrics.Operation.UPDATE)
+                .map(Optional::of);
+    }
+
+    private DiaryResponse saveNewDiary(User user, DiaryCreateRequest request, AiServiceResult aiResult) {
+        try {
+            return inWriteTransaction(() -> {
+                // AI 분석 중 같은 날짜의 일기가 먼저 저장되었을 수 있으므로 다시 확인
+                validateDuplicateDiary(user, request.getDate());
+
+                Diary diary = buildDiaryEntity(user, request, aiResult);
+                Diary savedDiary = diaryRepository.saveAndFlush(diary);
+                enqueueFollowUpJobs(savedDiary);
+                diarySearchIndex.diarySaved(savedDiary, null, null, nextDiaryVersion(savedDiary));
+
+                saveDiaryContents(savedDiary, request.getActivities(), request.getImages());
+
+                return buildDiaryResponse(savedDiary, request.getActivities(), request.getImages());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 재확인 이후에 동시 저장된 경우 (user_id, date) 유니크 인덱스가 막아준다
+            throw new IllegalArgumentException(DUPLICATE_DIARY_MESSAGE);
+        }
+    }
+
+    private DiaryResponse saveUpdatedDiary(User user, Long diaryId, DiaryUpdateRequest request,
+            AiServiceResult aiResult) {
+        return inWriteTransaction(() -> {
+            // 활동/이미지까지 한 번에 읽어 두고 바뀐 것만 반영한다
+            Diary diary = diaryRepository.findDetailByIdAndUser(diaryId, user)
+                    .orElseThrow(() -> new IllegalArgumentException("Diary not found"));
+            String previousTitle = diary.getTitle();
+            String previousContent = diary.getContent();
+
+            if (aiResult != null) {
+                updateDiaryEntity(diary, user, request, aiResult);
+                enqueueFollowUpJobs(diary);
+            } else {
+                updateDiaryEntityPartial(diary, request);
+            }
+            diarySearchIndex.diarySaved(diary, previousTitle, previousContent, nextDiaryVersion(diary));
+
+            syncDiaryContents(diary, request.getActivities(), request.getImages());
+
+            return buildDiaryResponse(diary, request.getActivities(), request.getImages());
+        });
     }
 
-    private void updateDiaryEntity(Diary diary, DiaryUpdateRequest request, AiServiceResult aiResult) {
+    private void updateDiaryEntity(Diary diary, User user, DiaryUpdateRequest request, AiServiceResult aiResult) {
         // Update does not change date
         diary.setTitle(request.getTitle());
         diary.setContent(request.getContent());
         diary.setMood(request.getMood());
         diary.setWeather(request.getWeather());
         // Save user's current persona as snapshot
-        diary.setPersona(diary.getUser().getPersona());
+        diary.setPersona(user.getPersona());
 
-        diary.setEmotion(Emotion.valueOf(aiResult.getEmotion()));
-        diary.setAiComment(aiResult.getAiComment());
-        diary.setRecommendedFood(convertToJson(aiResult.getRecommendedFood()));
-        diary.setImageUrl(aiResult.getImageUrl());
+        applyAiResult(diary, aiResult);
         diary.setUpdatedAt(LocalDateTime.now());
     }
 
@@ -203,6 +548,55 @@ public class DiaryService {
         diaryImageRepository.deleteAll(diaryImageRepository.findAllByDiary(diary));
     }
 
+    /**
+     * 수정 요청의 활동/이미지를 기존 행과 비교해 바뀐 부분만 반영한다.
+     * 목록은 id 순으로 읽으므로(@OrderBy("id")) 순서도 내용이다. 앞에서부터 같은 값인 행은 그대로 두고,
+     * 처음 달라진 위치부터 뒤의 기존 행을 id 목록으로 한 번에 삭제한 뒤 요청의 나머지 값을 순서대로 추가한다.
+     * 목록이 같으면 아무 행도 건드리지 않으므로, 제목/본문만 바꾼 수정은 diaries 한 행만 변경한다.
+     * null은 기존과 같이 빈 목록으로 취급한다.
+     */
+    private void syncDiaryContents(Diary diary, List<String> activities, List<String> images) {
+        List<DiaryActivity> removedActivities = new ArrayList<>();
+        List<String> addedActivities = diffChildren(diary.getActivities(), DiaryActivity::getActivity,
+                activities, removedActivities);
+        if (!removedActivities.isEmpty()) {
+            diaryActivityRepository.deleteAllByIdInBatch(
+                    removedActivities.stream().map(DiaryActivity::getId).collect(Collectors.toList()));
+            diary.getActivities().removeAll(removedActivities);
+        }
+        saveActivities(diary, addedActivities);
+
+        List<DiaryImage> removedImages = new ArrayList<>();
+        List<String> addedImages = diffChildren(diary.getImages(), DiaryImage::getImageUrl, images, removedImages);
+        if (!removedImages.isEmpty()) {
+            diaryImageRepository.deleteAllByIdInBatch(
+                    removedImages.stream().map(DiaryImage::getId).collect(Collectors.toList()));
+            diary.getImages().removeAll(removedImages);
+        }
+        saveImages(diary, addedImages);
+    }
+
+    /**
+     * 기존 행(id 순)과 요청 값의 공통 접두사 이후 차이
+     * 처음 달라진 위치부터의 기존 행은 removed에 담고, 같은 위치부터의 요청 값을 반환한다.
+     * 새 행은 기존 행보다 id가 크므로 반환 값을 순서대로 추가하면 읽을 때 요청 순서와 같아진다.
+     */
+    private static <T> List<String> diffChildren(Collection<T> existing, Function<T, String> valueOf,
+            List<String> requested, List<T> removed) {
+        List<String> values = requested != null ? requested : List.of();
+        int index = 0;
+        boolean diverged = false;
+        for (T child : existing) {
+            if (!diverged && index < values.size() && Objects.equals(valueOf.apply(child), values.get(index))) {
+                index++;
+            } else {
+                diverged = true;
+                removed.add(child);
+            }
+        }
+        return new ArrayList<>(values.subList(index, values.size()));
+    }
+
     private AiServerRequest buildAiRequest(User user, String content,
             com.p_project.p_project_backend.entity.Diary.Weather weather) {
         return AiServerRequest.builder()
@@ -210,10 +604,63 @@ public class DiaryService {
                 .weather(weather)
                 .persona(user.getPersona())
                 .gender(user.getGender())
+                .userId(user.getId())
                 .build();
     }
 
     private Diary buildDiaryEntity(User user, DiaryCreateRequest request, AiServiceResult aiResult) {
+        Diary diary = Diary.builder()
+                .user(user)
+                .date(request.getDate())
+                .title(request.getTitle())
+                .content(request.getContent())
+                .mood(request.getMood())
+                .weather(request.getWeather())
+                .persona(user.getPersona()) // Save snapshot of persona
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        applyAiResult(diary, aiResult);
+        return diary;
+    }
+
+    private void enqueueFollowUpJobs(Diary diary) {
+        // 일기 저장과 같은 트랜잭션에서 등록 (커밋되면 작업도 함께 보존됨)
+        if (diary.getAnalysisStatus() == AnalysisStatus.DEGRADED) {
+            aiJobService.enqueue(diary, AiJob.Phase.TEXT, degradedReanalysisDelay);
+        }
+        if (diary.getImageStatus() == ImageStatus.PENDING) {
+            aiJobService.enqueue(diary, AiJob.Phase.IMAGE, Duration.ZERO);
+        }
+    }
+
+    private void applyAiResult(Diary diary, AiServiceResult aiResult) {
+        diary.setEmotion(Emotion.valueOf(aiResult.getEmotion()));
+        diary.setAiComment(aiResult.getAiComment());
+        diary.setRecommendedFood(
+                aiResult.getRecommendedFood() != null ? convertToJson(aiResult.getRecommendedFood()) : null);
+        diary.setImageUrl(aiResult.getImageUrl());
+        // 캐시에서 받은 이미지는 이전에 만들어 둔 축소본을 그대로 쓴다
+        setImageVariants(diary, aiResult.getImageUrl() != null
+                ? imageVariantService.findVariants(aiResult.getImageUrl())
+                : ImageVariantService.ImageVariants.NONE);
+        if (aiResult.isDegraded()) {
+            // 대체 결과는 이미지 없이 저장하고, 재분석이 끝나면 이미지 단계를 진행한다
+            diary.setAnalysisStatus(AnalysisStatus.DEGRADED);
+            diary.setImageStatus(ImageStatus.NONE);
+        } else {
+            diary.setAnalysisStatus(AnalysisStatus.COMPLETED);
+            diary.setImageStatus(initialImageStatus(aiResult));
+        }
+    }
+
+    private void setImageVariants(Diary diary, ImageVariantService.ImageVariants variants) {
+        diary.setThumbnailUrl(variants.thumbnailUrl());
+        diary.setMediumImageUrl(variants.mediumUrl());
+    }
+
+    private Diary buildPendingDiaryEntity(User user, DiaryCreateRequest request) {
+        // 분석 전에는 emotion을 채울 수 없으므로 중립으로 임시 저장한다 (emotion 컬럼 NOT NULL)
         return Diary.builder()
                 .user(user)
                 .date(request.getDate())
@@ -222,15 +669,21 @@ public class DiaryService {
                 .mood(request.getMood())
                 .weather(request.getWeather())
                 .persona(user.getPersona()) // Save snapshot of persona
-                .emotion(Emotion.valueOf(aiResult.getEmotion()))
-                .aiComment(aiResult.getAiComment())
-                .recommendedFood(convertToJson(aiResult.getRecommendedFood()))
-                .imageUrl(aiResult.getImageUrl())
+                .emotion(Emotion.중립)
+                .analysisStatus(AnalysisStatus.PENDING)
+                .imageStatus(ImageStatus.PENDING)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
     }
 
+    // fetch join으로 활동/이미지를 함께 읽은 일기 (추가 쿼리 없음)
+    private DiaryResponse buildDiaryDetailResponse(Diary diary) {
+        return buildDiaryResponse(diary,
+                diary.getActivities().stream().map(DiaryActivity::getActivity).collect(Collectors.toList()),
+                diary.getImages().stream().map(DiaryImage::getImageUrl).collect(Collectors.toList()));
+    }
+
     private DiaryResponse buildDiaryResponse(Diary savedDiary, List<String> requestActivities,
             List<String> requestImages) {
         List<String> activities;
@@ -259,57 +712,78 @@ public class DiaryService {
                 .activities(activities)
                 .images(images)
                 .imageUrl(savedDiary.getImageUrl())
+                .thumbnailUrl(savedDiary.getThumbnailUrl())
+                .mediumImageUrl(savedDiary.getMediumImageUrl())
                 .aiComment(savedDiary.getAiComment())
                 .recommendedFood(convertFromJson(savedDiary.getRecommendedFood()))
                 .createdAt(savedDiary.getCreatedAt())
                 .updatedAt(savedDiary.getUpdatedAt())
                 .persona(savedDiary.getPersona() != null ? savedDiary.getPersona().name() : null)
+                .analysisStatus(resolveAnalysisStatus(savedDiary).name())
+                .imageStatus(resolveImageStatus(savedDiary).name())
                 .build();
     }
 
-    private DiarySummaryResponse buildDiarySummaryResponse(Diary diary) {
+    private DiarySummaryResponse buildDiarySummaryResponse(DiaryCalendarProjection row) {
         return DiarySummaryResponse.builder()
-                .id(diary.getId())
-                .date(diary.getDate())
-                .emotion(diary.getEmotion().name())
+                .id(row.getId())
+                .date(row.getDate())
+                .emotion(row.getEmotion().name())
+                .analysisStatus(resolveAnalysisStatus(row.getAnalysisStatus()).name())
+                .imageStatus(resolveImageStatus(row.getImageStatus(), row.getImageUrl()).name())
+                .thumbnailUrl(row.getThumbnailUrl())
                 .build();
     }
 
-    private DiarySearchResponse buildDiarySearchResponse(Diary diary) {
-        return DiarySearchResponse.builder()
-                .id(diary.getId())
-                .date(diary.getDate())
-                .title(diary.getTitle())
-                .content(diary.getContent())
+    private DiaryAnalysisStatusResponse buildAnalysisStatusResponse(Diary diary) {
+        return DiaryAnalysisStatusResponse.builder()
+                .diaryId(diary.getId())
+                .analysisStatus(resolveAnalysisStatus(diary).name())
+                .imageStatus(resolveImageStatus(diary).name())
                 .emotion(diary.getEmotion().name())
-                .weather(diary.getWeather() != null ? diary.getWeather().name() : null)
+                .aiComment(diary.getAiComment())
+                .imageUrl(diary.getImageUrl())
+                .thumbnailUrl(diary.getThumbnailUrl())
+                .mediumImageUrl(diary.getMediumImageUrl())
+                .recommendedFood(convertFromJson(diary.getRecommendedFood()))
                 .build();
     }
 
+    private AnalysisStatus resolveAnalysisStatus(Diary diary) {
+        return resolveAnalysisStatus(diary.getAnalysisStatus());
+    }
+
+    private static AnalysisStatus resolveAnalysisStatus(AnalysisStatus analysisStatus) {
+        // 컬럼 추가 이전에 작성된 일기는 null이며, 동기 분석을 거쳤으므로 COMPLETED로 취급
+        return analysisStatus != null ? analysisStatus : AnalysisStatus.COMPLETED;
+    }
+
+    private ImageStatus resolveImageStatus(Diary diary) {
+        return resolveImageStatus(diary.getImageStatus(), diary.getImageUrl());
+    }
+
+    private static ImageStatus resolveImageStatus(ImageStatus imageStatus, String imageUrl) {
+        if (imageStatus != null) {
+            return imageStatus;
+        }
+        // 컬럼 추가 이전에 작성된 일기는 이미지까지 동기로 생성되었다
+        return imageUrl != null && !imageUrl.isEmpty() ? ImageStatus.READY : ImageStatus.NONE;
+    }
+
+    private ImageStatus initialImageStatus(AiServiceResult aiResult) {
+        // 캐시에서 이미지까지 받은 경우에는 생성 단계를 건너뛴다
+        return aiResult.getImageUrl() != null && !aiResult.getImageUrl().isEmpty()
+                ? ImageStatus.READY
+                : ImageStatus.PENDING;
+    }
+
+    // 활동/이미지는 JDBC batch로 한 번에 저장한다 (IDENTITY 키라 saveAll은 행마다 INSERT 왕복)
     private void saveActivities(Diary diary, List<String> activities) {
-        if (activities == null || activities.isEmpty())
-            return;
-        List<DiaryActivity> entities = activities.stream()
-                .map(activity -> DiaryActivity.builder()
-                        .diary(diary)
-                        .activity(activity)
-                        .createdAt(LocalDateTime.now())
-                        .build())
-                .collect(Collectors.toList());
-        diaryActivityRepository.saveAll(entities);
+        diaryContentBatchRepository.insertActivities(diary.getId(), activities, LocalDateTime.now());
     }
 
     private void saveImages(Diary diary, List<String> images) {
-        if (images == null || images.isEmpty())
-            return;
-        List<DiaryImage> entities = images.stream()
-                .map(imageUrl -> DiaryImage.builder()
-                        .diary(diary)
-                        .imageUrl(imageUrl)
-                        .createdAt(LocalDateTime.now())
-                        .build())
-                .collect(Collectors.toList());
-        diaryImageRepository.saveAll(entities);
+        diaryContentBatchRepository.insertImages(diary.getId(), images, LocalDateTime.now());
     }
 
     private String convertToJson(Object object) {
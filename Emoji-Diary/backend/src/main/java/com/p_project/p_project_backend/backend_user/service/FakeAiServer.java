@@ -0,0 +1,207 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerBatchResponse;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServerResponse;
+import com.p_project.p_project_backend.backend_user.dto.ai.RecommendedFood;
+import com.p_project.p_project_backend.entity.Diary.Emotion;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * 부하 테스트용 가짜 AI 서버 (fake-ai 프로필)
+ * GPU 기반 Python AI 서버 없이 일기 작성 경로의 처리량/꼬리 지연을 측정하기 위해,
+ * 같은 프로세스 안에 AI 서버와 같은 엔드포인트를 가진 HTTP 서버를 띄운다.
+ * 실제 네트워크 경로(연결 풀, 응답 시한, JSON/Base64 스트리밍 처리)를 그대로 거치도록 AiConfig의 WebClient가 이 서버를 가리킨다.
+ * - 지연: 단계별 로그 정규 분포 (중앙값, p99로 지정)
+ * - 오류: HTTP 500 비율(error-rate), 200 + {error, detail} 비율(soft-error-rate)
+ * - 이미지: 지정한 크기에 가까운 PNG (압축되지 않는 노이즈 이미지)
+ * 실행: --spring.profiles.active=fake-ai
+ */
+@Slf4j
+@Component
+@Profile("fake-ai")
+@RequiredArgsConstructor
+public class FakeAiServer {
+
+    // 표준 정규 분포의 99번째 백분위수
+    private static final double Z_99 = 2.3263;
+
+    private static final List<String> COMMENTS = List.of(
+            "오늘 하루도 정말 수고 많았어요. 스스로를 조금 더 아껴 주세요.",
+            "마음이 복잡했던 하루였네요. 천천히 쉬어 가도 괜찮아요.",
+            "좋은 일이 있었다니 저도 기뻐요! 이 기분을 오래 간직해요.");
+    private static final List<RecommendedFood> FOODS = List.of(
+            new RecommendedFood("따뜻한 국밥", "든든한 한 끼가 마음까지 데워 줄 거예요."),
+            new RecommendedFood("떡볶이", "매콤달콤한 맛으로 기분 전환을 해 보세요."),
+            new RecommendedFood("과일 요거트", "가볍고 상큼하게 하루를 마무리해요."));
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${ai.fake.port:0}")
+    private int port;
+
+    @Value("${ai.fake.text.latency-median:300ms}")
+    private Duration textLatencyMedian;
+
+    @Value("${ai.fake.text.latency-p99:1500ms}")
+    private Duration textLatencyP99;
+
+    // 배치 요청은 텍스트 지연 + 항목당 추가 지연
+    @Value("${ai.fake.batch.per-item-latency:20ms}")
+    private Duration batchPerItemLatency;
+
+    @Value("${ai.fake.image.latency-median:8s}")
+    private Duration imageLatencyMedian;
+
+    @Value("${ai.fake.image.latency-p99:20s}")
+    private Duration imageLatencyP99;
+
+    @Value("${ai.fake.error-rate:0.01}")
+    private double errorRate;
+
+    @Value("${ai.fake.soft-error-rate:0.0}")
+    private double softErrorRate;
+
+    @Value("${ai.fake.image-size:600KB}")
+    private DataSize imageSize;
+
+    private DisposableServer server;
+    private String imageBase64;
+
+    @PostConstruct
+    void start() throws IOException {
+        imageBase64 = Base64.getEncoder().encodeToString(noisePng(imageSize));
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(port)
+                .route(routes -> routes
+                        .post("/api/ai/diary", (request, response) ->
+                                handle(request, response, textLatencyMedian, textLatencyP99, Duration.ZERO,
+                                        body -> textResult(true)))
+                        .post("/api/ai/diary/text", (request, response) ->
+                                handle(request, response, textLatencyMedian, textLatencyP99, Duration.ZERO,
+                                        body -> textResult(false)))
+                        .post("/api/ai/diary/text/batch", (request, response) ->
+                                handle(request, response, textLatencyMedian, textLatencyP99, batchPerItemLatency,
+                                        this::batchResult))
+                        .post("/api/ai/diary/image", (request, response) ->
+                                handle(request, response, imageLatencyMedian, imageLatencyP99, Duration.ZERO,
+                                        body -> Map.of("image", imageBase64))))
+                .bindNow();
+        log.info("가짜 AI 서버 시작: {} (image {} bytes base64)", getBaseUrl(), imageBase64.length());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response,
+            Duration median, Duration p99, Duration perItemLatency, Function<JsonNode, Object> result) {
+        return request.receive().aggregate().asByteArray()
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> {
+                    JsonNode body = readTree(bytes);
+                    int items = body.path("items").size();
+                    Duration latency = sampleLatency(median, p99).plus(perItemLatency.multipliedBy(items));
+                    return Mono.delay(latency).thenReturn(body);
+                })
+                .flatMap(body -> {
+                    double roll = ThreadLocalRandom.current().nextDouble();
+                    if (roll < errorRate) {
+                        return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR)
+                                .sendString(Mono.just("{\"detail\":\"fake ai error\"}"))
+                                .then();
+                    }
+                    Object payload = roll < errorRate + softErrorRate
+                            ? Map.of("error", "Analysis failed", "detail", "fake ai soft error")
+                            : result.apply(body);
+                    return response.header("Content-Type", "application/json")
+                            .sendByteArray(Mono.fromCallable(() -> objectMapper.writeValueAsBytes(payload)))
+                            .then();
+                });
+    }
+
+    private AiServerResponse textResult(boolean withImage) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Emotion[] emotions = Emotion.values();
+        return AiServerResponse.builder()
+                .emotion(emotions[random.nextInt(emotions.length)].name())
+                .aiComment(COMMENTS.get(random.nextInt(COMMENTS.size())))
+                .recommendedFood(FOODS.get(random.nextInt(FOODS.size())))
+                .image(withImage ? imageBase64 : null)
+                .build();
+    }
+
+    private AiServerBatchResponse batchResult(JsonNode body) {
+        List<AiServerResponse> results = new ArrayList<>();
+        for (int i = 0; i < body.path("items").size(); i++) {
+            results.add(textResult(false));
+        }
+        return new AiServerBatchResponse(results, null, null);
+    }
+
+    /**
+     * 로그 정규 분포 표본: 중앙값 = e^mu, p99 = e^(mu + 2.3263 * sigma)
+     */
+    private Duration sampleLatency(Duration median, Duration p99) {
+        double mu = Math.log(Math.max(median.toNanos(), 1));
+        double sigma = Math.max(0, (Math.log(Math.max(p99.toNanos(), 1)) - mu) / Z_99);
+        return Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    private JsonNode readTree(byte[] bytes) {
+        try {
+            return bytes.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(bytes);
+        } catch (IOException e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private static byte[] noisePng(DataSize size) throws IOException {
+        // 노이즈 RGB 픽셀은 거의 압축되지 않으므로 한 변 = sqrt(바이트 수 / 3)
+        int side = Math.max(1, (int) Math.sqrt(size.toBytes() / 3.0));
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,218 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * AI 이미지 축소본 생성
+ * 원본(images/ai_generates/{name}.jpg) 옆에 썸네일({name}_thumb.jpg)과 중간 크기({name}_medium.jpg) JPEG를 만든다.
+ * 캘린더/목록처럼 작은 화면은 축소본을 받도록 응답에 URL을 함께 내려준다.
+ * 디코딩/리사이즈는 CPU와 메모리를 많이 쓰므로 전용 풀(image.variants.pool-size)과 제한된 대기열에서만 실행하며,
+ * 대기열이 가득 차거나 실패하면 축소본 없이 원본만 사용한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    private static final String IMAGE_DIR = "images/ai_generates/";
+    private static final String IMAGE_URL_PREFIX = "/images/ai_generates/";
+    private static final String THUMBNAIL_SUFFIX = "_thumb.jpg";
+    private static final String MEDIUM_SUFFIX = "_medium.jpg";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${image.variants.pool-size:2}")
+    private int poolSize;
+
+    @Value("${image.variants.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${image.variants.thumbnail-size:200}")
+    private int thumbnailSize;
+
+    @Value("${image.variants.medium-size:720}")
+    private int mediumSize;
+
+    @Value("${image.variants.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    private ThreadPoolTaskExecutor executor;
+
+    public record ImageVariants(String thumbnailUrl, String mediumUrl) {
+        public static final ImageVariants NONE = new ImageVariants(null, null);
+    }
+
+    @PostConstruct
+    void initExecutor() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    /**
+     * 축소본 생성 (전용 풀에서 실행). 대기열이 가득 찼거나 실패하면 NONE으로 완료된다.
+     */
+    public CompletableFuture<ImageVariants> createVariants(String imageUrl) {
+        Path original = toPath(imageUrl);
+        if (original == null) {
+            return CompletableFuture.completedFuture(ImageVariants.NONE);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> resize(imageUrl, original), executor);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("image.variant.rejected").increment();
+            log.warn("이미지 축소본 대기열이 가득 차 원본만 사용합니다: {}", imageUrl);
+            return CompletableFuture.completedFuture(ImageVariants.NONE);
+        }
+    }
+
+    /**
+     * 이미 만들어 둔 축소본 (AI 결과 캐시로 같은 이미지를 재사용할 때)
+     */
+    public ImageVariants findVariants(String imageUrl) {
+        Path original = toPath(imageUrl);
+        if (original == null) {
+            return ImageVariants.NONE;
+        }
+        return new ImageVariants(
+                Files.exists(variantPath(original, THUMBNAIL_SUFFIX)) ? variantUrl(imageUrl, THUMBNAIL_SUFFIX) : null,
+                Files.exists(variantPath(original, MEDIUM_SUFFIX)) ? variantUrl(imageUrl, MEDIUM_SUFFIX) : null);
+    }
+
+    private ImageVariants resize(String imageUrl, Path original) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                outcome = "unsupported";
+                return ImageVariants.NONE;
+            }
+            // 중간 크기를 먼저 만들고 썸네일은 그것에서 줄인다 (큰 원본을 두 번 축소하지 않음)
+            BufferedImage medium = scaleDown(source, mediumSize);
+            writeJpeg(medium, variantPath(original, MEDIUM_SUFFIX));
+            writeJpeg(scaleDown(medium, thumbnailSize), variantPath(original, THUMBNAIL_SUFFIX));
+            return new ImageVariants(variantUrl(imageUrl, THUMBNAIL_SUFFIX), variantUrl(imageUrl, MEDIUM_SUFFIX));
+        } catch (IOException | RuntimeException e) {
+            outcome = "failure";
+            log.warn("이미지 축소본 생성 실패: {}: {}", imageUrl, e.getMessage());
+            return ImageVariants.NONE;
+        } finally {
+            sample.stop(Timer.builder("image.variant.duration")
+                    .description("AI 이미지 축소본 생성 시간")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 긴 변이 maxSize 이하가 되도록 축소한다. 한 번에 크게 줄이면 계단 현상이 생기므로 절반씩 줄인다.
+     */
+    private static BufferedImage scaleDown(BufferedImage source, int maxSize) {
+        int longSide = Math.max(source.getWidth(), source.getHeight());
+        if (longSide <= maxSize) {
+            return toRgb(source, source.getWidth(), source.getHeight());
+        }
+        double scale = (double) maxSize / longSide;
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = toRgb(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage toRgb(BufferedImage source, int width, int height) {
+        // JPEG는 알파 채널을 지원하지 않으므로 RGB로 그린다
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+
+        // 임시 파일에 쓴 뒤 옮겨서, 응답에 URL이 나간 뒤 덜 써진 파일을 내려주는 일이 없게 한다
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Path toPath(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(IMAGE_URL_PREFIX)) {
+            return null;
+        }
+        return Paths.get(IMAGE_DIR, imageUrl.substring(IMAGE_URL_PREFIX.length()));
+    }
+
+    private static Path variantPath(Path original, String suffix) {
+        return original.resolveSibling(baseName(original.getFileName().toString()) + suffix);
+    }
+
+    private static String variantUrl(String imageUrl, String suffix) {
+        return IMAGE_URL_PREFIX + baseName(imageUrl.substring(IMAGE_URL_PREFIX.length())) + suffix;
+    }
+
+    private static String baseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+}
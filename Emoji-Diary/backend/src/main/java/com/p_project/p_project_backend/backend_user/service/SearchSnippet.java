@@ -0,0 +1,108 @@
+package com.p_project.p_project_backend.backend_user.service;
+
+import com.p_project.p_project_backend.backend_user.dto.diary.DiarySearchResponse.Highlight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * 검색 결과 미리보기 (본문 전체 대신 첫 일치 위치 주변의 일부)
+ * 검색 결과는 검색어 전체를 포함하므로(LIKE) 검색어 전체의 첫 일치 위치로 구간을 정하고 그 일치를 강조한다.
+ * 본문에 검색어 전체가 없을 때(제목에서만 일치 등)만 단어별로 찾는다.
+ * 강조 구간은 snippet 문자열 기준 [start, end) 오프셋이다. 잘린 앞/뒤에는 "…"를 붙인다.
+ */
+public record SearchSnippet(String snippet, List<Highlight> highlights) {
+
+    private static final String ELLIPSIS = "…";
+
+    /**
+     * 검색어 → 강조할 검색어 목록 (소문자)
+     * 첫 항목은 검색어 전체, 나머지는 공백으로 나눈 두 글자 이상의 단어 (한 글자 단어는 거의 모든 본문에서 일치하므로 뺀다)
+     */
+    public static List<String> terms(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return List.of();
+        }
+        String phrase = keyword.trim().toLowerCase(Locale.ROOT);
+        return Stream.concat(Stream.of(phrase), Arrays.stream(phrase.split("\\s+"))
+                        .filter(word -> word.codePointCount(0, word.length()) > 1))
+                .distinct()
+                .toList();
+    }
+
+    public static SearchSnippet of(String content, List<String> terms, int maxLength) {
+        if (content == null || content.isEmpty()) {
+            return new SearchSnippet("", List.of());
+        }
+
+        List<int[]> matches = new ArrayList<>();
+        int windowStart = terms.isEmpty() ? -1 : collect(content, terms.subList(0, 1), maxLength, matches);
+        if (windowStart < 0 && terms.size() > 1) {
+            windowStart = collect(content, terms.subList(1, terms.size()), maxLength, matches);
+        }
+        if (windowStart < 0) {
+            windowStart = 0;
+        }
+        int windowEnd = adjustEnd(content, Math.min(content.length(), windowStart + maxLength));
+
+        String prefix = windowStart > 0 ? ELLIPSIS : "";
+        String suffix = windowEnd < content.length() ? ELLIPSIS : "";
+        int shift = prefix.length() - windowStart;
+        List<Highlight> highlights = new ArrayList<>(matches.size());
+        for (int[] match : matches) {
+            if (match[0] < windowEnd) {
+                highlights.add(new Highlight(match[0] + shift, Math.min(match[1], windowEnd) + shift));
+            }
+        }
+        return new SearchSnippet(prefix + content.substring(windowStart, windowEnd) + suffix, highlights);
+    }
+
+    /**
+     * 본문을 앞에서부터 한 번만 훑으며 terms 중 하나와 처음 일치하는 위치로 구간을 정하고,
+     * 구간 안의 일치 위치를 matches에 모은다. 구간 시작 위치를 반환한다 (일치가 없으면 -1).
+     */
+    private static int collect(String content, List<String> terms, int maxLength, List<int[]> matches) {
+        int windowStart = -1;
+        int windowEnd = content.length();
+        int position = 0;
+        // 첫 일치 전까지는 본문 끝까지, 이후에는 구간 끝까지만 훑는다
+        while (position < windowEnd) {
+            int matchedLength = matchAt(content, position, terms);
+            if (matchedLength == 0) {
+                position++;
+                continue;
+            }
+            if (windowStart < 0) {
+                // 첫 일치 앞에 구간의 1/4 정도 문맥을 남긴다
+                windowStart = adjustStart(content, Math.max(0, position - maxLength / 4));
+                windowEnd = Math.min(content.length(), windowStart + maxLength);
+            }
+            matches.add(new int[] { position, position + matchedLength });
+            position += matchedLength;
+        }
+        return windowStart;
+    }
+
+    // position에서 시작하는 가장 긴 검색어 길이 (없으면 0)
+    private static int matchAt(String content, int position, List<String> terms) {
+        int longest = 0;
+        for (String term : terms) {
+            if (term.length() > longest && content.regionMatches(true, position, term, 0, term.length())) {
+                longest = term.length();
+            }
+        }
+        return longest;
+    }
+
+    // 서로게이트 쌍(이모지 등) 중간에서 자르지 않는다
+    private static int adjustStart(String content, int start) {
+        return start > 0 && Character.isLowSurrogate(content.charAt(start)) ? start - 1 : start;
+    }
+
+    private static int adjustEnd(String content, int end) {
+        return end < content.length() && end > 0 && Character.isLowSurrogate(content.charAt(end)) ? end - 1 : end;
+    }
+}
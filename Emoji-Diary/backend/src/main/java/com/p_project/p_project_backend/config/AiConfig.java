@@ -1,24 +1,68 @@
 package com.p_project.p_project_backend.config;
 
+import com.p_project.p_project_backend.backend_user.service.FakeAiServer;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class AiConfig {
 
-    @Bean
-    public WebClient aiWebClient() {
-        // AI 서버(FastAPI)가 실행될 주소 (로컬 테스트 기준)
-        // Base64 이미지 수신을 위해 버퍼 크기를 10MB로 설정
-        ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider aiConnectionProvider(
+            @Value("${ai.server.max-connections:32}") int maxConnections,
+            @Value("${ai.server.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${ai.server.max-idle-time:30s}") Duration maxIdleTime) {
+        // AI 서버 전용 커넥션 풀 (다른 WebClient와 공유하지 않음)
+        // 풀이 가득 차면 pendingAcquireTimeout 이후 실패하므로 대기 요청이 무한히 쌓이지 않는다
+        return ConnectionProvider.builder("ai-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
                 .build();
+    }
 
+    @Bean
+    public WebClient aiWebClient(
+            ConnectionProvider aiConnectionProvider,
+            ObjectProvider<FakeAiServer> fakeAiServer,
+            @Value("${ai.server.base-url:http://localhost:8000}") String baseUrl,
+            @Value("${ai.server.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${ai.server.read-timeout:120s}") Duration readTimeout) {
+        // 단계별 응답 시한(텍스트/이미지)은 AiResilience에서 적용하고,
+        // 여기서는 연결 시한과 응답이 끊긴 연결을 정리하기 위한 읽기 시한만 둔다
+        HttpClient httpClient = HttpClient.create(aiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+
+        // Base64 이미지 응답은 AiService에서 DataBuffer 단위로 스트리밍 처리하므로
+        // 코덱 버퍼(maxInMemorySize)를 늘릴 필요가 없다
+        // fake-ai 프로필에서는 프로세스 안에 띄운 가짜 AI 서버를 호출한다 (부하 테스트용)
+        FakeAiServer fake = fakeAiServer.getIfAvailable();
         return WebClient.builder()
-                .baseUrl("http://localhost:8000")
-                .exchangeStrategies(strategies)
+                .baseUrl(fake != null ? fake.getBaseUrl() : baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler aiIoScheduler(
+            @Value("${ai.io.thread-cap:8}") int threadCap,
+            @Value("${ai.io.queued-task-cap:1000}") int queuedTaskCap) {
+        // AI 이미지 디코딩/파일 쓰기 전용 (WebClient 이벤트 루프에서 블로킹 I/O 방지)
+        return Schedulers.newBoundedElastic(threadCap, queuedTaskCap, "ai-io");
+    }
 }
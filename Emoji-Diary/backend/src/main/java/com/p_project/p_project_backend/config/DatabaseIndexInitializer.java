@@ -2,6 +2,7 @@ package com.p_project.p_project_backend.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.Order;
@@ -15,6 +16,10 @@ public class DatabaseIndexInitializer {
 
     private final JdbcTemplate jdbcTemplate;
 
+    // 일기 검색 인덱스 파서 (DiarySearchService와 같은 설정, 기존 인덱스와 다르면 기동 시 다시 만든다)
+    @Value("${diary.search.ngram:false}")
+    private boolean ngram;
+
     @EventListener(ApplicationReadyEvent.class)
     @Order(1)
     public void createFulltextIndex() {
@@ -45,8 +50,23 @@ public class DatabaseIndexInitializer {
             
             Integer indexExists = jdbcTemplate.queryForObject(checkIndexSql, Integer.class);
             
+            // ngram 파서는 MySQL 전용 (한국어를 글자 n-gram으로 색인), MariaDB는 기본 파서 사용
+            String parser = ngram ? " WITH PARSER ngram" : "";
+
             if (indexExists != null && indexExists > 0) {
-                log.info("FULLTEXT 인덱스가 이미 존재합니다: idx_diaries_title_content");
+                if (usesNgramParser() == ngram) {
+                    log.info("FULLTEXT 인덱스가 이미 존재합니다: idx_diaries_title_content");
+                    return;
+                }
+                // 3-1. 파서 설정이 바뀐 경우 재생성
+                // 삭제와 생성을 한 문장으로 실행하므로 생성이 실패하면(MariaDB의 ngram 등) 기존 인덱스가 그대로 남는다
+                log.warn("FULLTEXT 인덱스 파서가 설정과 달라 다시 만듭니다: idx_diaries_title_content (ngram={})", ngram);
+                jdbcTemplate.execute("""
+                    ALTER TABLE diaries
+                    DROP INDEX idx_diaries_title_content,
+                    ADD FULLTEXT INDEX idx_diaries_title_content (title, content)
+                    """ + parser);
+                log.info("FULLTEXT 인덱스 재생성 완료: idx_diaries_title_content (ngram={})", ngram);
                 return;
             }
 
@@ -54,14 +74,22 @@ public class DatabaseIndexInitializer {
             String createIndexSql = """
                 CREATE FULLTEXT INDEX idx_diaries_title_content 
                 ON diaries(title, content)
-                """;
+                """ + parser;
             
             jdbcTemplate.execute(createIndexSql);
-            log.info("FULLTEXT 인덱스 생성 완료: idx_diaries_title_content");
+            log.info("FULLTEXT 인덱스 생성 완료: idx_diaries_title_content (ngram={})", ngram);
             
         } catch (Exception e) {
             log.error("FULLTEXT 인덱스 생성 중 오류 발생 (무시하고 계속 진행): {}", 
                      e.getMessage());
         }
     }
+
+    // information_schema에는 파서 정보가 없어 SHOW CREATE TABLE의 인덱스 정의에서 확인한다
+    // (MySQL: FULLTEXT KEY `idx_diaries_title_content` (`title`,`content`) /*!50100 WITH PARSER `ngram` */)
+    private boolean usesNgramParser() {
+        String ddl = jdbcTemplate.queryForObject("SHOW CREATE TABLE diaries", (rs, rowNum) -> rs.getString(2));
+        return ddl != null && ddl.lines()
+                .anyMatch(line -> line.contains("idx_diaries_title_content") && line.contains("ngram"));
+    }
 }
\ No newline at end of file
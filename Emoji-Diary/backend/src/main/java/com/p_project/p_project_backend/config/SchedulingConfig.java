@@ -0,0 +1,10 @@
+package com.p_project.p_project_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // @Scheduled 작업 활성화 (DiaryAnalysisService의 AI 작업 대기열 폴링 등)
+}
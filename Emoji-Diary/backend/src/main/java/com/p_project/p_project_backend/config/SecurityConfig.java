@@ -1,7 +1,9 @@
 package com.p_project.p_project_backend.config;
 
 import com.p_project.p_project_backend.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,6 +24,10 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // 관리 포트 (management.server.port) - 메트릭은 이 포트로 들어온 요청에만 연다. 설정하지 않으면 메트릭은 막힌다.
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -29,12 +35,19 @@ public class SecurityConfig {
                 .cors(org.springframework.security.config.Customizer.withDefaults()) // Enable CORS
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Mono/SSE 응답의 비동기 재디스패치는 최초 요청에서 이미 인증/인가됨
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll() // Allow all auth endpoints
                         .requestMatchers("/api/admin/auth/login").permitAll() // Allow admin login
                         .requestMatchers("/api/admin/auth/refresh").permitAll() // Allow admin token refresh
                         .requestMatchers("/api/admin/auth/logout").permitAll() // Allow admin logout (Controller에서 토큰
                                                                                // 검증)
                         .requestMatchers("/images/**").permitAll() // Allow access to uploaded images
+                        .requestMatchers("/actuator/health").permitAll() // 헬스 체크
+                        // 메트릭(prometheus 등)은 내부망 전용 관리 포트에서만 스크레이프, 앱 포트에서는 로그인해도 막는다
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort)
+                        .permitAll()
+                        .requestMatchers("/actuator/**").denyAll()
                         .requestMatchers("/", "/index.html", "/static/**", "/*.html", "/*.css", "/*.js").permitAll() // Allow
                                                                                                                      // static
                                                                                                                      // resources
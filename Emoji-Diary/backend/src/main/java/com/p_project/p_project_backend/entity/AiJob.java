@@ -0,0 +1,86 @@
+package com.p_project.p_project_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "ai_jobs", indexes = {
+        @Index(name = "idx_ai_jobs_diary_phase", columnList = "diary_id, phase", unique = true), // 일기·단계별 작업 1개
+        @Index(name = "idx_ai_jobs_claim", columnList = "phase, status, next_run_at") // 워커 작업 할당 조회
+}) // 테이블명 설정 - ai_jobs, 인덱스 설정
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // 인자가 필요없는 생성자 생성
+@AllArgsConstructor // 모든 인자를 필요로하는 생성자 생성
+@Builder // 객체 생성 시 Builder를 활용하여 생성 가능
+// AI 작업 대기열 DB(ai_jobs)와 연동되는 자바 Entity 객체이다. 완료된 작업은 삭제된다.
+public class AiJob {
+
+    // 작업 고유 ID (id)
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // auto_increment 설정
+    private Long id;
+
+    // 대상 일기 ID (diary_id) - FK
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "diary_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Diary diary;
+
+    // 작업 단계 (phase)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false, length = 10)
+    private Phase phase;
+
+    // 작업 상태 (status)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private Status status;
+
+    // 시도 횟수 (attempts) - 할당될 때마다 증가
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // 다음 실행 가능 시각 (next_run_at) - 재시도 시 지수 백오프 적용
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    // 작업을 할당받은 노드 (locked_by)
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    // 할당 만료 시각 (locked_until) - 지나면 다른 워커가 다시 가져갈 수 있음
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    // 마지막 실패 사유 (last_error)
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // 낙관적 잠금 버전 (version) - 실행 중 다시 등록된 작업을 완료 처리로 지우지 않기 위함
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    // 생성일시 (created_at)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // 수정일시 (updated_at)
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Phase {
+        TEXT, // 감정/코멘트/음식 추천 분석
+        IMAGE // 그림일기 이미지 생성
+    }
+
+    public enum Status {
+        QUEUED, // 실행 대기
+        RUNNING // 워커가 할당받아 실행 중
+    }
+}
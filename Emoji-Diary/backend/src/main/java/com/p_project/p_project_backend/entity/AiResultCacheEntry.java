@@ -0,0 +1,42 @@
+package com.p_project.p_project_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "ai_result_cache") // 테이블명 설정 - ai_result_cache
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // 인자가 필요없는 생성자 생성
+@AllArgsConstructor // 모든 인자를 필요로하는 생성자 생성
+@Builder // 객체 생성 시 Builder를 활용하여 생성 가능
+// AI 분석 결과 캐시 DB(ai_result_cache)와 연동되는 자바 Entity 객체이다. (AiResultCache 영속 계층)
+public class AiResultCacheEntry {
+
+    // 캐시 키 (cache_key) - (userId, content, weather, persona, gender)의 SHA-256 해시
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    // 감정 (emotion)
+    @Column(name = "emotion", nullable = false, length = 20)
+    private String emotion;
+
+    // AI 코멘트 (ai_comment)
+    @Column(name = "ai_comment", columnDefinition = "TEXT")
+    private String aiComment;
+
+    // 음식 추천 정보 (recommended_food) - JSON
+    @Column(name = "recommended_food", columnDefinition = "JSON")
+    private String recommendedFood;
+
+    // AI 생성 이미지 URL (image_url)
+    @Column(name = "image_url", length = 500)
+    private String imageUrl;
+
+    // 생성일시 (created_at)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
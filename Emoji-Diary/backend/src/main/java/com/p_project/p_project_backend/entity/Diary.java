@@ -7,6 +7,8 @@ import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -77,6 +79,14 @@ public class Diary {
     @Column(name = "image_url", length = 500)
     private String imageUrl;
 
+    // AI 이미지 썸네일 URL (thumbnail_url) - 캘린더/목록용 축소본, 없으면 image_url 사용
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    // AI 이미지 중간 크기 URL (medium_image_url) - 모바일 상세 화면용 축소본
+    @Column(name = "medium_image_url", length = 500)
+    private String mediumImageUrl;
+
     // AI 코멘트 (ai_comment)
     @Column(name = "ai_comment", columnDefinition = "TEXT")
     private String aiComment;
@@ -85,6 +95,17 @@ public class Diary {
     @Column(name = "recommended_food", columnDefinition = "JSON")
     private String recommendedFood;
 
+    // AI 분석 상태 (analysis_status) - 비동기 작성 시 PENDING
+    @Enumerated(EnumType.STRING)
+    @Column(name = "analysis_status")
+    @Builder.Default
+    private AnalysisStatus analysisStatus = AnalysisStatus.COMPLETED;
+
+    // AI 이미지 생성 상태 (image_status) - 이미지는 텍스트 분석 이후 백그라운드에서 생성
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_status")
+    private ImageStatus imageStatus;
+
     // 생성일시 (created_at)
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -97,6 +118,19 @@ public class Diary {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    // 활동 목록 (diary_activities) - 상세 조회 시 fetch join용 읽기 전용 매핑, 저장/삭제는 DiaryActivityRepository
+    // 두 컬렉션을 한 쿼리로 fetch join 하려면 List(bag)가 아닌 Set이어야 한다 (MultipleBagFetchException)
+    @OneToMany(mappedBy = "diary")
+    @OrderBy("id")
+    @Builder.Default
+    private Set<DiaryActivity> activities = new LinkedHashSet<>();
+
+    // 이미지 목록 (diary_images) - 상세 조회 시 fetch join용 읽기 전용 매핑, 저장/삭제는 DiaryImageRepository
+    @OneToMany(mappedBy = "diary")
+    @OrderBy("id")
+    @Builder.Default
+    private Set<DiaryImage> images = new LinkedHashSet<>();
+
     public enum Emotion {
         행복, // JOY
         중립, // NEUTRAL
@@ -110,4 +144,18 @@ public class Diary {
     public enum Weather {
         맑음, 흐림, 비, 눈, 천둥, 안개
     }
+
+    public enum AnalysisStatus {
+        PENDING, // 분석 대기/진행 중
+        COMPLETED, // 분석 완료
+        FAILED, // 분석 실패
+        DEGRADED // AI 서버 장애로 대체 결과 저장, 재분석 대기
+    }
+
+    public enum ImageStatus {
+        PENDING, // 생성 대기/진행 중
+        READY, // 생성 완료 (imageUrl 사용 가능)
+        FAILED, // 생성 실패 또는 시간 초과
+        NONE // 이미지 없음
+    }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.p_project.p_project_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "reanalysis_jobs") // 테이블명 설정 - reanalysis_jobs
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // 인자가 필요없는 생성자 생성
+@AllArgsConstructor // 모든 인자를 필요로하는 생성자 생성
+@Builder // 객체 생성 시 Builder를 활용하여 생성 가능
+// 관리자 일괄 재분석 작업 DB(reanalysis_jobs)와 연동되는 자바 Entity 객체이다.
+// last_diary_id가 체크포인트이며, 일시정지 후 재개/서버 재기동 시 그 다음 일기부터 이어서 처리한다.
+public class ReanalysisJob {
+
+    // 작업 고유 ID (id)
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // auto_increment 설정
+    private Long id;
+
+    // 작업 상태 (status)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    // AI 코멘트도 갱신할지 여부 (include_comment) - false면 감정만 갱신
+    @Column(name = "include_comment", nullable = false)
+    private boolean includeComment;
+
+    // 초당 최대 AI 요청 수 (rate_per_second)
+    @Column(name = "rate_per_second", nullable = false)
+    private double ratePerSecond;
+
+    // 체크포인트 - 마지막으로 처리한 일기 ID (last_diary_id), 0이면 처음부터
+    @Column(name = "last_diary_id", nullable = false)
+    private long lastDiaryId;
+
+    // 시작 시점의 대상 일기 수 (total_count)
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    // 처리한 일기 수 (processed_count)
+    @Column(name = "processed_count", nullable = false)
+    private long processedCount;
+
+    // 감정이 바뀐 일기 수 (changed_count)
+    @Column(name = "changed_count", nullable = false)
+    private long changedCount;
+
+    // AI 분석 실패로 건너뛴 일기 수 (failed_count)
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+
+    // 작업을 실행 중인 노드 (locked_by) - 한 작업은 한 노드에서만 실행
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    // 실행 할당 만료 시각 (locked_until) - 노드가 죽으면 만료 후 다른 노드가 이어서 실행
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    // 작업을 시작한 관리자 ID (started_by) - FK (NULL 가능)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "started_by")
+    private Admin startedBy;
+
+    // 생성일시 (created_at)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // 수정일시 (updated_at)
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // 종료일시 (completed_at) - 완료/취소 시각
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        RUNNING, // 진행 중
+        PAUSED, // 일시정지 (체크포인트부터 재개 가능)
+        COMPLETED, // 완료
+        CANCELLED // 취소
+    }
+}
@@ -59,6 +59,11 @@ public class User {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // 일기 변경 버전 (diary_version) - 일기 작성/수정/삭제, AI 결과 반영 때마다 1씩 증가 (조회 응답의 ETag)
+    @Column(name = "diary_version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    @Builder.Default
+    private Long diaryVersion = 0L;
+
     // 삭제일시 (deleted_at) - 소프트 삭제
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
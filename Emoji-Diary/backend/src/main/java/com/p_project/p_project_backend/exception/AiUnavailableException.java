@@ -0,0 +1,7 @@
+package com.p_project.p_project_backend.exception;
+
+public class AiUnavailableException extends RuntimeException {
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -103,6 +103,18 @@ public class GlobalExceptionHandler {
                                                 Map.of("code", errorCode, "message", ex.getMessage())));
         }
 
+        @ExceptionHandler(IdempotencyKeyMismatchException.class)
+        public ResponseEntity<?> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex,
+                        HttpServletRequest request) {
+                String errorCode = "IDEMPOTENCY_KEY_REUSED";
+
+                logError(ex, ErrorLog.Level.WARN, errorCode, ex.getMessage(), request);
+
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                                Map.of("success", false, "error",
+                                                Map.of("code", errorCode, "message", ex.getMessage())));
+        }
+
         @ExceptionHandler(IllegalArgumentException.class)
         public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex,
                         HttpServletRequest request) {
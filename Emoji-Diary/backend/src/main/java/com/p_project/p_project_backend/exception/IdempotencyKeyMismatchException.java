@@ -0,0 +1,7 @@
+package com.p_project.p_project_backend.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
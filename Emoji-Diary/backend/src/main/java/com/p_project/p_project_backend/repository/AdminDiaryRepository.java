@@ -1,7 +1,9 @@
 package com.p_project.p_project_backend.repository;
 
 import com.p_project.p_project_backend.entity.Diary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -165,4 +167,61 @@ public interface AdminDiaryRepository extends JpaRepository<Diary, Long> {
        Long countDiariesInPeriod(
                      @Param("startDate") LocalDate startDate,
                      @Param("endDate") LocalDate endDate);
+
+       /**
+        * 재분석 대상 수 (삭제되지 않은 분석 완료 일지)
+        * 분석 대기/대체 결과(PENDING/DEGRADED) 일지는 AI 작업 대기열이 처리한다.
+        *
+        * @return 재분석 대상 수
+        */
+       @Query("SELECT COUNT(d.id) " +
+                     "FROM Diary d " +
+                     "WHERE d.deletedAt IS NULL " +
+                     "AND d.analysisStatus = com.p_project.p_project_backend.entity.Diary.AnalysisStatus.COMPLETED")
+       long countReanalysisTargets();
+
+       /**
+        * 재분석 대상 청크 조회 (id 순, afterId 다음부터)
+        * 요청에 작성자 성별이 필요하므로 작성자를 함께 조회한다.
+        *
+        * @param afterId  체크포인트 (마지막으로 처리한 일지 ID)
+        * @param pageable 청크 크기 (첫 페이지만 사용)
+        * @return 재분석 대상 일지 목록
+        */
+       @Query("SELECT d FROM Diary d JOIN FETCH d.user " +
+                     "WHERE d.id > :afterId " +
+                     "AND d.deletedAt IS NULL " +
+                     "AND d.analysisStatus = com.p_project.p_project_backend.entity.Diary.AnalysisStatus.COMPLETED " +
+                     "ORDER BY d.id")
+       List<Diary> findReanalysisChunk(@Param("afterId") long afterId, Pageable pageable);
+
+       /**
+        * 재분석 결과 반영 (감정만)
+        * 분석 중 내용이 수정/삭제되었거나 다시 분석 대기 상태가 된 일지는 갱신하지 않는다.
+        *
+        * @return 갱신된 행 수 (0 또는 1)
+        */
+       @Modifying
+       @Query("UPDATE Diary d SET d.emotion = :emotion " +
+                     "WHERE d.id = :id AND d.content = :content " +
+                     "AND d.deletedAt IS NULL " +
+                     "AND d.analysisStatus = com.p_project.p_project_backend.entity.Diary.AnalysisStatus.COMPLETED")
+       int updateReanalyzedEmotion(@Param("id") Long id,
+                     @Param("content") String content,
+                     @Param("emotion") Diary.Emotion emotion);
+
+       /**
+        * 재분석 결과 반영 (감정 + AI 코멘트)
+        *
+        * @return 갱신된 행 수 (0 또는 1)
+        */
+       @Modifying
+       @Query("UPDATE Diary d SET d.emotion = :emotion, d.aiComment = :aiComment " +
+                     "WHERE d.id = :id AND d.content = :content " +
+                     "AND d.deletedAt IS NULL " +
+                     "AND d.analysisStatus = com.p_project.p_project_backend.entity.Diary.AnalysisStatus.COMPLETED")
+       int updateReanalyzedEmotionAndComment(@Param("id") Long id,
+                     @Param("content") String content,
+                     @Param("emotion") Diary.Emotion emotion,
+                     @Param("aiComment") String aiComment);
 }
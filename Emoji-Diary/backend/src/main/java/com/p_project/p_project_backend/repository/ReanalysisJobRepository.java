@@ -0,0 +1,62 @@
+package com.p_project.p_project_backend.repository;
+
+import com.p_project.p_project_backend.entity.ReanalysisJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReanalysisJobRepository extends JpaRepository<ReanalysisJob, Long> {
+
+       Optional<ReanalysisJob> findTopByOrderByIdDesc();
+
+       List<ReanalysisJob> findByStatus(ReanalysisJob.Status status);
+
+       boolean existsByStatusIn(Collection<ReanalysisJob.Status> statuses);
+
+       /**
+        * 진행 중인 작업의 실행 할당
+        * 다른 노드가 실행 중이면(할당 만료 전) 0을 반환한다.
+        */
+       @Modifying
+       @Query("UPDATE ReanalysisJob j SET j.lockedBy = :nodeId, j.lockedUntil = :lockedUntil " +
+                     "WHERE j.id = :id " +
+                     "AND j.status = com.p_project.p_project_backend.entity.ReanalysisJob.Status.RUNNING " +
+                     "AND (j.lockedBy IS NULL OR j.lockedBy = :nodeId OR j.lockedUntil < :now)")
+       int claim(@Param("id") Long id,
+                     @Param("nodeId") String nodeId,
+                     @Param("now") LocalDateTime now,
+                     @Param("lockedUntil") LocalDateTime lockedUntil);
+
+       /**
+        * 청크 처리 결과 기록 (체크포인트 전진 + 할당 연장)
+        * 할당을 잃었다면(다른 노드가 가져감) 0을 반환한다.
+        * 상태 컬럼은 건드리지 않으므로 처리 중 들어온 일시정지/취소 요청을 덮어쓰지 않는다.
+        */
+       @Modifying
+       @Query("UPDATE ReanalysisJob j SET j.lastDiaryId = :lastDiaryId, " +
+                     "j.processedCount = j.processedCount + :processed, " +
+                     "j.changedCount = j.changedCount + :changed, " +
+                     "j.failedCount = j.failedCount + :failed, " +
+                     "j.lockedUntil = :lockedUntil, " +
+                     "j.updatedAt = :now " +
+                     "WHERE j.id = :id AND j.lockedBy = :nodeId")
+       int advanceCheckpoint(@Param("id") Long id,
+                     @Param("nodeId") String nodeId,
+                     @Param("lastDiaryId") long lastDiaryId,
+                     @Param("processed") long processed,
+                     @Param("changed") long changed,
+                     @Param("failed") long failed,
+                     @Param("now") LocalDateTime now,
+                     @Param("lockedUntil") LocalDateTime lockedUntil);
+
+       @Modifying
+       @Query("UPDATE ReanalysisJob j SET j.lockedBy = NULL, j.lockedUntil = NULL " +
+                     "WHERE j.id = :id AND j.lockedBy = :nodeId")
+       int release(@Param("id") Long id, @Param("nodeId") String nodeId);
+}
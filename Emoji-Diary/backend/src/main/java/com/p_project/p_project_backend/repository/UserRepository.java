@@ -2,6 +2,7 @@ package com.p_project.p_project_backend.repository;
 
 import com.p_project.p_project_backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -14,6 +15,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
         boolean existsByEmail(String email);
 
+        /**
+         * 일기 변경 버전 증가 (일기를 바꾸는 트랜잭션 안에서 호출)
+         * 캘린더/상세/통계 응답의 ETag가 이 값으로 만들어지므로, 일기 데이터가 바뀌는 모든 경로에서 호출해야 한다.
+         */
+        @Modifying
+        @Query("UPDATE User u SET u.diaryVersion = u.diaryVersion + 1 WHERE u.id = :userId")
+        int incrementDiaryVersion(@Param("userId") Long userId);
+
+        /**
+         * 현재 일기 변경 버전 - incrementDiaryVersion 직후에는 행 잠금이 유지되므로 이 트랜잭션이 올린 값이다
+         */
+        @Query("SELECT u.diaryVersion FROM User u WHERE u.id = :userId")
+        long findDiaryVersion(@Param("userId") Long userId);
+
         /**
          * 삭제되지 않은 사용자 수 조회
          */
@@ -0,0 +1,72 @@
+package com.p_project.p_project_backend;
+
+import com.p_project.p_project_backend.backend_user.service.AiCircuitBreaker;
+import com.p_project.p_project_backend.backend_user.service.AiCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiCircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void opensWhenFailureRateExceedsThreshold_AndRejectsCalls() {
+        // Given
+        AiCircuitBreaker breaker = new AiCircuitBreaker("text", 4, 4, 0.5, Duration.ofMinutes(1), 1,
+                meterRegistry);
+
+        // When
+        breaker.tryAcquire();
+        breaker.onSuccess();
+        breaker.tryAcquire();
+        breaker.onSuccess();
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(State.CLOSED, breaker.getState()); // 최소 호출 수 미달
+        breaker.tryAcquire();
+        breaker.onFailure();
+
+        // Then
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1.0, transitions("CLOSED", "OPEN"));
+    }
+
+    @Test
+    void halfOpenTrialSuccess_ClosesCircuit_AndFailureReopens() {
+        // Given - openDuration 0: 다음 요청에서 바로 HALF_OPEN
+        AiCircuitBreaker breaker = new AiCircuitBreaker("image", 2, 2, 0.5, Duration.ZERO, 1, meterRegistry);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.getState());
+
+        // When - 시험 호출 실패
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire()); // 시험 호출은 1개만 허용
+        breaker.onFailure();
+
+        // Then
+        assertEquals(State.OPEN, breaker.getState());
+
+        // When - 시험 호출 성공
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+
+        // Then
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(2.0, transitions("OPEN", "HALF_OPEN"));
+        assertEquals(1.0, transitions("HALF_OPEN", "OPEN"));
+        assertEquals(1.0, transitions("HALF_OPEN", "CLOSED"));
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry.get("ai.circuit.transitions").tag("from", from).tag("to", to).counter().count();
+    }
+}
@@ -0,0 +1,96 @@
+package com.p_project.p_project_backend;
+
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServiceResult;
+import com.p_project.p_project_backend.backend_user.repository.DiaryRepository;
+import com.p_project.p_project_backend.backend_user.service.AiJobService;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchIndex;
+import com.p_project.p_project_backend.backend_user.service.DiaryService;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.Diary.AnalysisStatus;
+import com.p_project.p_project_backend.entity.Diary.Emotion;
+import com.p_project.p_project_backend.entity.Diary.Weather;
+import com.p_project.p_project_backend.entity.User;
+import com.p_project.p_project_backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 비동기 분석 작업이 끝나기 전에 일기가 수정되면, 작업의 (이전 입력에 대한) 결과가 반영되지 않아야 한다.
+ */
+@ExtendWith(MockitoExtension.class)
+class DiaryAnalysisResultGuardTest {
+
+    private static final Long DIARY_ID = 10L;
+
+    @Mock
+    private DiaryRepository diaryRepository;
+    @Mock
+    private AiJobService aiJobService;
+    @Mock
+    private DiarySearchIndex diarySearchIndex;
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private DiaryService diaryService;
+
+    private final AiServiceResult staleResult = AiServiceResult.builder()
+            .emotion(Emotion.슬픔.name())
+            .aiComment("이전 내용에 대한 코멘트")
+            .build();
+
+    @Test
+    void resultIsDiscardedWhenUpdateAlreadyCompletedAnalysis() {
+        Diary diary = diary("새 내용", AnalysisStatus.COMPLETED);
+        when(diaryRepository.findById(DIARY_ID)).thenReturn(Optional.of(diary));
+
+        assertTrue(diaryService.applyAnalysisResult(DIARY_ID, "새 내용", Weather.맑음, staleResult).isEmpty());
+
+        assertEquals(Emotion.행복, diary.getEmotion());
+        verify(aiJobService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    void resultIsDiscardedWhenContentChanged() {
+        Diary diary = diary("새 내용", AnalysisStatus.PENDING);
+        when(diaryRepository.findById(DIARY_ID)).thenReturn(Optional.of(diary));
+
+        assertTrue(diaryService.applyAnalysisResult(DIARY_ID, "이전 내용", Weather.맑음, staleResult).isEmpty());
+
+        assertEquals(AnalysisStatus.PENDING, diary.getAnalysisStatus());
+        verify(aiJobService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    void resultIsAppliedWhenInputIsUnchanged() {
+        Diary diary = diary("이전 내용", AnalysisStatus.PENDING);
+        when(diaryRepository.findById(DIARY_ID)).thenReturn(Optional.of(diary));
+
+        assertTrue(diaryService.applyAnalysisResult(DIARY_ID, "이전 내용", Weather.맑음, staleResult).isPresent());
+
+        assertEquals(Emotion.슬픔, diary.getEmotion());
+        assertEquals(AnalysisStatus.COMPLETED, diary.getAnalysisStatus());
+    }
+
+    private static Diary diary(String content, AnalysisStatus status) {
+        return Diary.builder()
+                .id(DIARY_ID)
+                .user(User.builder().id(1L).email("user@example.com").build())
+                .date(LocalDate.of(2025, 12, 1))
+                .content(content)
+                .weather(Weather.맑음)
+                .emotion(Emotion.행복)
+                .analysisStatus(status)
+                .build();
+    }
+}
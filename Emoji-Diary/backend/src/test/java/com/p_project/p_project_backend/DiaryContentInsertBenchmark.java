@@ -0,0 +1,131 @@
+package com.p_project.p_project_backend;
+
+import com.p_project.p_project_backend.backend_user.repository.DiaryActivityRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiaryContentBatchRepository;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.DiaryActivity;
+import com.p_project.p_project_backend.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 일기 활동 저장 방식 비교: JPA saveAll(IDENTITY, 행마다 INSERT) vs JDBC batch(일기당 한 번)
+ * 기본 test 태스크에서는 제외된다. 실행: ./gradlew benchmark
+ * 내장 H2는 네트워크 왕복이 없어 차이가 작게 나온다. 실제 DB 기준 수치는
+ * -Dspring.datasource.url=jdbc:mariadb://... 와 @AutoConfigureTestDatabase(replace = NONE)로 측정한다.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(DiaryContentBatchRepository.class)
+class DiaryContentInsertBenchmark {
+
+    private static final int DIARIES = 300;
+    private static final int ACTIVITIES_PER_DIARY = 10;
+    private static final int WARMUP_ROUNDS = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DiaryActivityRepository diaryActivityRepository;
+    @Autowired
+    private DiaryContentBatchRepository diaryContentBatchRepository;
+
+    private final List<String> activities = IntStream.range(0, ACTIVITIES_PER_DIARY)
+            .mapToObj(i -> "활동" + i)
+            .collect(Collectors.toList());
+
+    @Test
+    void compareSaveAllWithJdbcBatch() {
+        List<Diary> diaries = createDiaries();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Consumer<Diary> saveAll = diary -> {
+            diaryActivityRepository.saveAll(activities.stream()
+                    .map(activity -> DiaryActivity.builder()
+                            .diary(diary)
+                            .activity(activity)
+                            .createdAt(LocalDateTime.now())
+                            .build())
+                    .collect(Collectors.toList()));
+            entityManager.flush();
+        };
+        Consumer<Diary> jdbcBatch = diary -> diaryContentBatchRepository.insertActivities(
+                diary.getId(), activities, LocalDateTime.now());
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(diaries, saveAll);
+            run(diaries, jdbcBatch);
+        }
+
+        statistics.clear();
+        long saveAllNanos = run(diaries, saveAll);
+        long saveAllStatements = statistics.getPrepareStatementCount();
+        long jdbcBatchNanos = run(diaries, jdbcBatch);
+
+        System.out.printf("[benchmark] %d diaries x %d activities%n", DIARIES, ACTIVITIES_PER_DIARY);
+        System.out.printf("[benchmark] saveAll   : %8.2f ms, %d INSERT statements%n",
+                saveAllNanos / 1e6, saveAllStatements);
+        System.out.printf("[benchmark] jdbcBatch : %8.2f ms, %d batches%n", jdbcBatchNanos / 1e6, DIARIES);
+
+        // IDENTITY 키는 행마다 INSERT 한 번
+        assertEquals((long) DIARIES * ACTIVITIES_PER_DIARY, saveAllStatements);
+    }
+
+    private long run(List<Diary> diaries, Consumer<Diary> insert) {
+        long start = System.nanoTime();
+        for (Diary diary : diaries) {
+            insert.accept(diary);
+        }
+        long elapsed = System.nanoTime() - start;
+        entityManager.clear();
+        return elapsed;
+    }
+
+    private List<Diary> createDiaries() {
+        LocalDateTime now = LocalDateTime.now();
+        User user = entityManager.persist(User.builder()
+                .email("benchmark@example.com")
+                .name("사용자")
+                .passwordHash("hash")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        List<Diary> diaries = new ArrayList<>();
+        for (int i = 0; i < DIARIES; i++) {
+            diaries.add(entityManager.persist(Diary.builder()
+                    .user(user)
+                    .date(LocalDate.of(2020, 1, 1).plusDays(i))
+                    .title("제목")
+                    .content("본문")
+                    .emotion(Diary.Emotion.중립)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build()));
+        }
+        entityManager.flush();
+        return diaries;
+    }
+}
@@ -0,0 +1,132 @@
+package com.p_project.p_project_backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryUpdateRequest;
+import com.p_project.p_project_backend.backend_user.repository.DiaryActivityRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiaryContentBatchRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiaryImageRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiaryRepository;
+import com.p_project.p_project_backend.backend_user.service.AiJobService;
+import com.p_project.p_project_backend.backend_user.service.AiService;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchIndex;
+import com.p_project.p_project_backend.backend_user.service.DiaryService;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.DiaryActivity;
+import com.p_project.p_project_backend.entity.User;
+import com.p_project.p_project_backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * 일기 수정 시 활동/이미지는 순서까지 요청과 같아지도록 바뀐 위치부터만 다시 쓴다.
+ */
+@ExtendWith(MockitoExtension.class)
+class DiaryContentSyncTest {
+
+    private static final Long DIARY_ID = 10L;
+
+    @Mock
+    private DiaryRepository diaryRepository;
+    @Mock
+    private DiaryActivityRepository diaryActivityRepository;
+    @Mock
+    private DiaryImageRepository diaryImageRepository;
+    @Mock
+    private DiaryContentBatchRepository diaryContentBatchRepository;
+    @Mock
+    private AiService aiService;
+    @Mock
+    private AiJobService aiJobService;
+    @Mock
+    private DiarySearchIndex diarySearchIndex;
+    @Mock
+    private UserRepository userRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private DiaryTransactionBoundaryTest.RecordingTransactionManager transactionManager =
+            new DiaryTransactionBoundaryTest.RecordingTransactionManager();
+
+    @InjectMocks
+    private DiaryService diaryService;
+
+    private final User user = User.builder().id(1L).email("user@example.com").build();
+
+    @Test
+    void reorderedActivitiesAreRewrittenFromFirstDifference() {
+        Diary diary = diaryWithActivities("산책", "독서", "요리");
+
+        update(diary, List.of("산책", "요리", "독서"));
+
+        verify(diaryActivityRepository).deleteAllByIdInBatch(List.of(2L, 3L));
+        verify(diaryContentBatchRepository).insertActivities(eq(DIARY_ID), eq(List.of("요리", "독서")), any());
+    }
+
+    @Test
+    void appendedActivityKeepsExistingRows() {
+        Diary diary = diaryWithActivities("산책", "독서");
+
+        update(diary, List.of("산책", "독서", "요리"));
+
+        verify(diaryActivityRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(diaryContentBatchRepository).insertActivities(eq(DIARY_ID), eq(List.of("요리")), any());
+    }
+
+    @Test
+    void unchangedActivitiesTouchNoRows() {
+        Diary diary = diaryWithActivities("산책", "독서");
+
+        update(diary, List.of("산책", "독서"));
+
+        verify(diaryActivityRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(diaryContentBatchRepository).insertActivities(eq(DIARY_ID), eq(List.of()), any());
+        assertEquals(2, diary.getActivities().size());
+    }
+
+    private void update(Diary diary, List<String> activities) {
+        DiaryUpdateRequest request = new DiaryUpdateRequest();
+        request.setTitle(diary.getTitle());
+        request.setContent(diary.getContent());
+        request.setActivities(activities);
+        when(diaryRepository.findById(DIARY_ID)).thenReturn(Optional.of(diary));
+        when(diaryRepository.findDetailByIdAndUser(DIARY_ID, user)).thenReturn(Optional.of(diary));
+
+        // 본문/날씨/페르소나가 같으므로 AI 분석 없이 저장된다
+        diaryService.updateDiary(user, DIARY_ID, request).block();
+    }
+
+    private Diary diaryWithActivities(String... activities) {
+        Diary diary = Diary.builder()
+                .id(DIARY_ID)
+                .user(user)
+                .date(LocalDate.of(2025, 12, 1))
+                .title("title")
+                .content("content")
+                .persona(user.getPersona())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        for (int i = 0; i < activities.length; i++) {
+            diary.getActivities().add(DiaryActivity.builder()
+                    .id(i + 1L)
+                    .diary(diary)
+                    .activity(activities[i])
+                    .build());
+        }
+        return diary;
+    }
+}
@@ -0,0 +1,131 @@
+package com.p_project.p_project_backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryResponse;
+import com.p_project.p_project_backend.backend_user.repository.DiaryContentBatchRepository;
+import com.p_project.p_project_backend.backend_user.service.AiJobService;
+import com.p_project.p_project_backend.backend_user.service.AiService;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchIndex;
+import com.p_project.p_project_backend.backend_user.service.DiaryService;
+import com.p_project.p_project_backend.backend_user.service.ImageVariantService;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.DiaryActivity;
+import com.p_project.p_project_backend.entity.DiaryImage;
+import com.p_project.p_project_backend.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 일기 상세 조회(GET /api/diaries/{id}, /api/diaries/date/{date})가
+ * 일기 + 활동 + 이미지를 한 번의 SQL로 읽는지 Hibernate 통계로 검증한다.
+ * 활동/이미지가 여러 개여도 추가 쿼리(N+1, 작성자 프록시 초기화)가 없어야 한다.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ DiaryService.class, DiaryContentBatchRepository.class })
+class DiaryDetailQueryTest {
+
+    private static final LocalDate DIARY_DATE = LocalDate.of(2025, 12, 1);
+
+    @Autowired
+    private DiaryService diaryService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private AiService aiService;
+    @MockitoBean
+    private AiJobService aiJobService;
+    @MockitoBean
+    private ImageVariantService imageVariantService;
+    @MockitoBean
+    private DiarySearchIndex diarySearchIndex;
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private User owner;
+    private User other;
+    private Diary diary;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = entityManager.persist(user("owner@example.com", now));
+        other = entityManager.persist(user("other@example.com", now));
+        diary = entityManager.persist(Diary.builder()
+                .user(owner)
+                .date(DIARY_DATE)
+                .title("제목")
+                .content("오늘은 산책을 했다.")
+                .emotion(Diary.Emotion.행복)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        for (String activity : List.of("산책", "독서", "요리")) {
+            entityManager.persist(DiaryActivity.builder().diary(diary).activity(activity).createdAt(now).build());
+        }
+        for (String imageUrl : List.of("/images/a.jpg", "/images/b.jpg")) {
+            entityManager.persist(DiaryImage.builder().diary(diary).imageUrl(imageUrl).createdAt(now).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getDiaryReadsDiaryActivitiesAndImagesInOneStatement() {
+        DiaryResponse response = diaryService.getDiary(owner, diary.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of("산책", "독서", "요리"), response.getActivities());
+        assertEquals(List.of("/images/a.jpg", "/images/b.jpg"), response.getImages());
+    }
+
+    @Test
+    void getDiaryByDateReadsDiaryActivitiesAndImagesInOneStatement() {
+        DiaryResponse response = diaryService.getDiaryByDate(owner, DIARY_DATE);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(diary.getId(), response.getId());
+        assertEquals(3, response.getActivities().size());
+        assertEquals(2, response.getImages().size());
+    }
+
+    @Test
+    void otherUsersDiaryIsNotFound() {
+        assertThrows(IllegalArgumentException.class, () -> diaryService.getDiary(other, diary.getId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static User user(String email, LocalDateTime now) {
+        return User.builder()
+                .email(email)
+                .name("사용자")
+                .passwordHash("hash")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
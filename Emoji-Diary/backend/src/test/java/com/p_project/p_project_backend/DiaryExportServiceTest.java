@@ -0,0 +1,96 @@
+package com.p_project.p_project_backend;
+
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryResponse;
+import com.p_project.p_project_backend.backend_user.service.DiaryExportService;
+import com.p_project.p_project_backend.backend_user.service.DiaryService;
+import com.p_project.p_project_backend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DiaryExportServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private final User user = User.builder().id(1L).email("user@example.com").build();
+    private DiaryService diaryService;
+    private DiaryExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        diaryService = mock(DiaryService.class);
+        // 3개 일기를 2개씩 읽는다: (처음) → [1, 2], (2일, 2) → [3], (3일, 3) → []
+        when(diaryService.getDiariesForExport(eq(user), any(), any(), anyInt())).thenReturn(List.of());
+        when(diaryService.getDiariesForExport(user, LocalDate.of(1000, 1, 1), 0L, CHUNK_SIZE))
+                .thenReturn(List.of(diary(1L, LocalDate.of(2025, 1, 1)), diary(2L, LocalDate.of(2025, 1, 2))));
+        when(diaryService.getDiariesForExport(user, LocalDate.of(2025, 1, 2), 2L, CHUNK_SIZE))
+                .thenReturn(List.of(diary(3L, LocalDate.of(2025, 1, 3))));
+
+        exportService = new DiaryExportService(diaryService, JsonMapper.builder().build());
+        ReflectionTestUtils.setField(exportService, "chunkSize", CHUNK_SIZE);
+    }
+
+    @Test
+    void ndjsonWritesOneLinePerDiaryAcrossChunks() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(user, DiaryExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"date\":\"2025-01-01\""));
+        assertTrue(lines[2].contains("\"date\":\"2025-01-03\""));
+        verify(diaryService).getDiariesForExport(user, LocalDate.of(2025, 1, 3), 3L, CHUNK_SIZE);
+    }
+
+    @Test
+    void zipHasOneJsonEntryPerDiary() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(user, DiaryExportService.Format.ZIP, out);
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        // 이미지 URL이 외부 주소이거나 파일이 없으면 일기 JSON만 담긴다
+        assertEquals(List.of("diaries/2025-01-01.json", "diaries/2025-01-02.json", "diaries/2025-01-03.json"),
+                entries);
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DiaryExportService.Format.from("pdf"));
+    }
+
+    private static DiaryResponse diary(Long id, LocalDate date) {
+        return DiaryResponse.builder()
+                .id(id)
+                .date(date)
+                .title("제목")
+                .content("본문")
+                .emotion("행복")
+                .activities(List.of("산책"))
+                .images(List.of("https://example.com/photo.jpg"))
+                .imageUrl("/images/ai_generates/missing.jpg")
+                .build();
+    }
+}
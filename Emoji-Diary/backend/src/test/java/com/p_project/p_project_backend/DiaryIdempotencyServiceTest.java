@@ -0,0 +1,79 @@
+package com.p_project.p_project_backend;
+
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryCreateRequest;
+import com.p_project.p_project_backend.backend_user.service.DiaryIdempotencyService;
+import com.p_project.p_project_backend.entity.User;
+import com.p_project.p_project_backend.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiaryIdempotencyServiceTest {
+
+    private final User user = User.builder().id(1L).email("user@example.com").build();
+    private final AtomicInteger executions = new AtomicInteger();
+    private DiaryIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DiaryIdempotencyService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxEntries", 100);
+        ReflectionTestUtils.setField(service, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @Test
+    void concurrentRequestsForSameDate_ShareOneExecution() {
+        // Given
+        DiaryCreateRequest request = request("content");
+
+        // When - 첫 요청이 끝나기 전에 같은 요청이 도착
+        Mono<ResponseEntity<?>> first = service.execute(user, null, request, false, this::slowCreate);
+        Mono<ResponseEntity<?>> second = service.execute(user, null, request, false, this::slowCreate);
+        ResponseEntity<?> firstResponse = Mono.zip(first, second).block().getT1();
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(200, firstResponse.getStatusCode().value());
+    }
+
+    @Test
+    void retryWithSameKey_ReplaysStoredResponse_AndRejectsDifferentPayload() {
+        // Given
+        service.execute(user, "key-1", request("content"), false, this::slowCreate).block();
+
+        // When
+        ResponseEntity<?> replayed = service.execute(user, "key-1", request("content"), false, this::slowCreate)
+                .block();
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals("true", replayed.getHeaders().getFirst(DiaryIdempotencyService.REPLAYED_HEADER));
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> service.execute(user, "key-1", request("other"), false, this::slowCreate).block());
+    }
+
+    private Mono<ResponseEntity<?>> slowCreate() {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok("created");
+        }).delayElement(Duration.ofMillis(100));
+    }
+
+    private DiaryCreateRequest request(String content) {
+        DiaryCreateRequest request = new DiaryCreateRequest();
+        request.setDate(LocalDate.of(2025, 12, 1));
+        request.setTitle("title");
+        request.setContent(content);
+        return request;
+    }
+}
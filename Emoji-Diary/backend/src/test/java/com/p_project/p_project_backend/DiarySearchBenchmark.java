@@ -0,0 +1,185 @@
+package com.p_project.p_project_backend;
+
+import com.p_project.p_project_backend.backend_user.service.DiarySearchService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 일기 검색 비교: LIKE '%keyword%' vs MATCH ... AGAINST (FULLTEXT, BOOLEAN MODE) 후보 + LIKE 확인
+ * FULLTEXT 쿼리도 서비스와 같이 LIKE로 다시 확인하므로 결과는 LIKE와 같아야 한다 (첫 사용자 결과로 확인).
+ * 후보 질의는 서비스(DiarySearchService.toFulltextQuery)로 만들며, 서비스가 LIKE로만 검색하는 검색어는 LIKE 시간만 잰다.
+ * 합성 데이터(기본 200만 건)를 별도 테이블(bench_diaries)에 넣고 사용자 단위 검색 시간을 잰다.
+ * 기본 test 태스크에서는 제외되며, MariaDB/MySQL 접속 정보가 있을 때만 실행된다.
+ * 실행: ./gradlew benchmark -Dbenchmark.datasource.url=jdbc:mariadb://localhost:3306/bench
+ *       -Dbenchmark.datasource.username=... -Dbenchmark.datasource.password=... [-Dbenchmark.search.rows=2000000]
+ *       [-Dbenchmark.search.min-token-length=3 (DB의 innodb_ft_min_token_size)] [-Dbenchmark.search.ngram=false (MySQL)]
+ */
+@Tag("benchmark")
+class DiarySearchBenchmark {
+
+    private static final String[] WORDS = {
+            "오늘", "산책을", "했다", "친구와", "카페에서", "커피를", "마셨다", "회사에서", "야근을", "피곤했다",
+            "비가", "와서", "우울했다", "맛있는", "저녁을", "먹었다", "운동을", "하고", "기분이", "좋아졌다",
+            "영화를", "봤는데", "재미있었다", "시험", "공부를", "열심히", "가족과", "여행을", "계획했다", "바다가",
+            "보고", "싶다", "강아지와", "공원에서", "놀았다", "책을", "읽으며", "조용한", "하루를", "보냈다"
+    };
+    private static final String[] EMOTIONS = { "행복", "중립", "당황", "슬픔", "분노", "불안", "혐오" };
+    // 기본 파서에서 앞의 둘은 LIKE로만, 뒤의 둘은 FULLTEXT 후보 + LIKE로 검색된다 ("커피"는 최소 길이 미만)
+    private static final String[] KEYWORDS = { "산책", "카페에서 커피", "친구와 카페에서", "공원에서 놀았다" };
+    private static final int DIARIES_PER_USER = 365;
+    private static final int INSERT_BATCH = 5_000;
+    private static final int QUERY_SAMPLES = 200;
+
+    private static JdbcTemplate jdbcTemplate;
+    private static int users;
+    private static boolean ngram;
+    private static DiarySearchService searchService;
+
+    @BeforeAll
+    static void loadDataset() {
+        String url = System.getProperty("benchmark.datasource.url");
+        assumeTrue(url != null, "benchmark.datasource.url 미설정 - 검색 벤치마크를 건너뜁니다");
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+                System.getProperty("benchmark.datasource.username", "root"),
+                System.getProperty("benchmark.datasource.password", ""));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        int rows = Integer.getInteger("benchmark.search.rows", 2_000_000);
+        ngram = Boolean.getBoolean("benchmark.search.ngram");
+        // 후보 질의 생성에만 쓰므로 저장소 없이 설정값만 넣는다
+        searchService = new DiarySearchService(null, null);
+        ReflectionTestUtils.setField(searchService, "minTokenLength",
+                Integer.getInteger("benchmark.search.min-token-length", 3));
+        ReflectionTestUtils.setField(searchService, "ngram", ngram);
+        users = Math.max(1, rows / DIARIES_PER_USER);
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_diaries");
+        jdbcTemplate.execute("""
+                CREATE TABLE bench_diaries (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    user_id BIGINT NOT NULL,
+                    date DATE NOT NULL,
+                    title VARCHAR(255) NOT NULL,
+                    content TEXT NOT NULL,
+                    emotion VARCHAR(10) NOT NULL,
+                    deleted_at DATETIME NULL,
+                    INDEX idx_bench_user_date (user_id, date)
+                ) DEFAULT CHARSET = utf8mb4
+                """);
+
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[] {
+                    (long) (i % users),
+                    Date.valueOf(LocalDate.of(2020, 1, 1).plusDays(i / users)),
+                    sentence(random, 4),
+                    sentence(random, 60),
+                    EMOTIONS[random.nextInt(EMOTIONS.length)] });
+            if (batch.size() == INSERT_BATCH) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+        // 적재 후 인덱스를 만드는 편이 훨씬 빠르다
+        jdbcTemplate.execute("CREATE FULLTEXT INDEX idx_bench_title_content ON bench_diaries(title, content)"
+                + (ngram ? " WITH PARSER ngram" : ""));
+        System.out.printf("[benchmark] %d diaries / %d users loaded in %.1f s%n",
+                rows, users, (System.nanoTime() - start) / 1e9);
+    }
+
+    @AfterAll
+    static void dropDataset() {
+        if (jdbcTemplate != null && !Boolean.getBoolean("benchmark.search.keep")) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS bench_diaries");
+        }
+    }
+
+    @Test
+    void compareLikeWithFulltext() {
+        for (String keyword : KEYWORDS) {
+            String booleanQuery = ReflectionTestUtils.invokeMethod(searchService, "toFulltextQuery", keyword);
+            String pattern = "%" + keyword.trim() + "%";
+
+            IntFunction<List<Long>> likeQuery = userId -> jdbcTemplate.queryForList(
+                    "SELECT id FROM bench_diaries WHERE user_id = ? AND deleted_at IS NULL " +
+                            "AND (content LIKE ? OR title LIKE ?) ORDER BY date DESC, id DESC LIMIT 10",
+                    Long.class, userId, pattern, pattern);
+            if (booleanQuery == null) {
+                // 서비스도 LIKE로만 검색한다 (relevance 정렬도 최신순)
+                System.out.printf("[benchmark] '%s' avg ms - like: %.2f (FULLTEXT 후보 질의 없음, LIKE 경로)%n",
+                        keyword, measure(likeQuery));
+                continue;
+            }
+
+            IntFunction<List<Long>> fulltextQuery = userId -> jdbcTemplate.queryForList(
+                    "SELECT id FROM bench_diaries WHERE user_id = ? AND deleted_at IS NULL " +
+                            "AND MATCH(title, content) AGAINST (? IN BOOLEAN MODE) " +
+                            "AND (content LIKE ? OR title LIKE ?) ORDER BY date DESC, id DESC LIMIT 10",
+                    Long.class, userId, booleanQuery, pattern, pattern);
+            assertEquals(likeQuery.apply(0), fulltextQuery.apply(0), "FULLTEXT 결과가 LIKE와 다릅니다: " + keyword);
+
+            double like = measure(likeQuery);
+            double fulltext = measure(fulltextQuery);
+            double relevance = measure(userId -> jdbcTemplate.queryForList(
+                    "SELECT id FROM bench_diaries WHERE user_id = ? AND deleted_at IS NULL " +
+                            "AND MATCH(title, content) AGAINST (? IN BOOLEAN MODE) " +
+                            "AND (content LIKE ? OR title LIKE ?) " +
+                            "ORDER BY MATCH(title, content) AGAINST (? IN BOOLEAN MODE) DESC, date DESC LIMIT 10",
+                    userId, booleanQuery, pattern, pattern, booleanQuery));
+
+            System.out.printf("[benchmark] '%s' (%s) avg ms - like: %.2f, fulltext: %.2f, fulltext+relevance: %.2f%n",
+                    keyword, booleanQuery, like, fulltext, relevance);
+        }
+    }
+
+    private static double measure(IntFunction<?> query) {
+        Random random = new Random(7);
+        // 워밍업 (버퍼 풀 적재)
+        for (int i = 0; i < QUERY_SAMPLES / 10; i++) {
+            query.apply(random.nextInt(users));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERY_SAMPLES; i++) {
+            query.apply(random.nextInt(users));
+        }
+        return (System.nanoTime() - start) / 1e6 / QUERY_SAMPLES;
+    }
+
+    private static void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO bench_diaries (user_id, date, title, content, emotion) VALUES (?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package com.p_project.p_project_backend;
+
+import com.p_project.p_project_backend.backend_user.repository.DiaryRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiarySearchIndexProjection;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchIndex;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.Diary.Emotion;
+import com.p_project.p_project_backend.entity.User;
+import com.p_project.p_project_backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DiarySearchIndexTest {
+
+    private static final Long USER_ID = 1L;
+
+    // DB의 일기 행 (id → 행)
+    private final Map<Long, DiarySearchIndexProjection> rows = new LinkedHashMap<>();
+    // DB의 일기 변경 버전 (users.diary_version)
+    private long diaryVersion;
+    private DiaryRepository diaryRepository;
+    private DiarySearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        store(row(1L, LocalDate.of(2025, 1, 1), Emotion.행복, "산책", "오늘은 공원에서 산책을 했다"));
+        store(row(2L, LocalDate.of(2025, 1, 3), Emotion.슬픔, "비", "비가 와서 산책을 못 했다"));
+        store(row(3L, LocalDate.of(2025, 1, 2), Emotion.중립, "카페", "카페에서 책을 읽었다"));
+
+        diaryRepository = mock(DiaryRepository.class);
+        when(diaryRepository.findSearchIndexSource(USER_ID)).thenAnswer(invocation -> List.copyOf(rows.values()));
+        // LIKE '%검색어%' (대소문자 무시)
+        when(diaryRepository.findIdsContainingKeyword(eq(USER_ID), any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(1);
+            String keyword = invocation.<String>getArgument(2).toLowerCase();
+            return rows.values().stream()
+                    .filter(row -> ids.contains(row.getId()))
+                    .filter(row -> row.getTitle().toLowerCase().contains(keyword)
+                            || row.getContent().toLowerCase().contains(keyword))
+                    .map(DiarySearchIndexProjection::getId)
+                    .toList();
+        });
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findDiaryVersion(USER_ID)).thenAnswer(invocation -> diaryVersion);
+
+        index = new DiarySearchIndex(diaryRepository, userRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "maxUsers", 10);
+        ReflectionTestUtils.invokeMethod(index, "init");
+    }
+
+    @Test
+    void search_ShouldMatchInsideWords_NewestFirst() {
+        // "책을"은 "산책을"의 일부로도 찾는다
+        assertEquals(List.of(2L, 3L, 1L), search("책을", null));
+        assertEquals(List.of(2L, 1L), search("산책", null));
+        assertEquals(List.of(1L), search("공원에서 산책", null));
+        assertEquals(List.of(2L), search("산책", List.of(Emotion.슬픔)));
+        assertEquals(List.of(), search("바다", null));
+    }
+
+    @Test
+    void search_ShouldMatchWholeKeywordOnly_LikeSqlSearch() {
+        // 모든 bigram이 있어도 검색어가 이어져 있지 않으면 제외한다 ("산책", "공원"은 1번 일기에 따로 있다)
+        assertEquals(List.of(), search("산책 공원", null));
+        assertEquals(List.of(), search("산책을 읽었다", null));
+        assertEquals(List.of(3L), search("책을 읽", null));
+        assertEquals(List.of(1L), search("산책을 했다", null));
+    }
+
+    @Test
+    void search_ShouldFallBack_WhenOnlySingleCharacterWords() {
+        assertTrue(index.search(USER_ID, "비 책", null, null, null).isEmpty());
+    }
+
+    @Test
+    void changes_ShouldUpdateLoadedIndexWithoutRebuilding() {
+        search("산책", null);
+
+        Diary updated = diary(1L, Emotion.행복, "바다", "바다를 보러 여행을 갔다");
+        store(row(updated));
+        index.diarySaved(updated, "산책", "오늘은 공원에서 산책을 했다", ++diaryVersion);
+        Diary created = diary(4L, Emotion.불안, "여행", "여행 준비로 바빴다");
+        store(row(created));
+        index.diarySaved(created, null, null, ++diaryVersion);
+        index.emotionChanged(USER_ID, 2L, Emotion.분노, ++diaryVersion);
+        rows.remove(3L);
+        index.diaryDeleted(diary(3L, Emotion.중립, "카페", "카페에서 책을 읽었다"), ++diaryVersion);
+        index.versionChanged(USER_ID, ++diaryVersion);
+
+        assertEquals(List.of(2L), search("산책", null));
+        assertEquals(List.of(2L), search("산책", List.of(Emotion.분노)));
+        assertEquals(List.of(4L, 1L), search("여행", null));
+        assertEquals(List.of(1L), search("여행을 갔다", null));
+        assertEquals(List.of(), search("카페", null));
+        verify(diaryRepository, times(1)).findSearchIndexSource(USER_ID);
+    }
+
+    @Test
+    void search_ShouldRebuild_WhenAnotherServerChangedDiaries() {
+        search("산책", null);
+
+        // 다른 서버의 변경은 이 서버에 알림이 오지 않고 DB의 버전만 바뀐다
+        rows.remove(2L);
+        diaryVersion++;
+
+        assertEquals(List.of(1L), search("산책", null));
+        verify(diaryRepository, times(2)).findSearchIndexSource(USER_ID);
+    }
+
+    @Test
+    void change_ShouldDropIndex_WhenEarlierChangeWasMissed() {
+        search("산책", null);
+
+        // 버전 1(다른 서버)을 건너뛴 버전 2의 변경은 반영하지 않고 색인을 버린다
+        rows.remove(2L);
+        Diary created = diary(4L, Emotion.불안, "여행", "여행 준비로 바빴다");
+        store(row(created));
+        diaryVersion = 2;
+        index.diarySaved(created, null, null, 2);
+
+        assertEquals(0, index.size());
+        assertEquals(List.of(1L), search("산책", null));
+        assertEquals(List.of(4L), search("여행", null));
+        verify(diaryRepository, times(2)).findSearchIndexSource(USER_ID);
+    }
+
+    @Test
+    void next_ShouldVerifyOnlyFromGivenPositionUntilLimit() {
+        // 후보(최신순): 2 "산책을 못 했다", 3 (산책 없음, 후보 아님), 1 "산책을 했다"
+        DiarySearchIndex.Matches matches = index.search(USER_ID, "산책을 했다", null, null, null).orElseThrow();
+        assertEquals(List.of(2L, 1L), ids(matches.candidates()));
+
+        assertEquals(List.of(1L), ids(matches.next(0, 1)));
+        assertEquals(List.of(1L), ids(matches.next(1, 5)));
+        assertEquals(List.of(), ids(matches.next(2, 5)));
+        verify(diaryRepository).findIdsContainingKeyword(USER_ID, List.of(1L), "산책을 했다");
+    }
+
+    @Test
+    void exactKeyword_ShouldNotQueryText() {
+        search("산책", null);
+
+        verify(diaryRepository, never()).findIdsContainingKeyword(any(), any(), any());
+    }
+
+    private List<Long> search(String keyword, List<Emotion> emotions) {
+        Optional<DiarySearchIndex.Matches> result = index.search(USER_ID, keyword, null, null, emotions);
+        assertTrue(result.isPresent());
+        return ids(result.get().all());
+    }
+
+    private static List<Long> ids(List<DiarySearchIndex.Hit> hits) {
+        return hits.stream().map(DiarySearchIndex.Hit::diaryId).toList();
+    }
+
+    private static Diary diary(Long id, Emotion emotion, String title, String content) {
+        return Diary.builder()
+                .id(id)
+                .user(User.builder().id(USER_ID).build())
+                .date(LocalDate.of(2025, 1, id.intValue()))
+                .emotion(emotion)
+                .title(title)
+                .content(content)
+                .build();
+    }
+
+    private void store(DiarySearchIndexProjection row) {
+        rows.put(row.getId(), row);
+    }
+
+    private static DiarySearchIndexProjection row(Diary diary) {
+        return row(diary.getId(), diary.getDate(), diary.getEmotion(), diary.getTitle(), diary.getContent());
+    }
+
+    private static DiarySearchIndexProjection row(Long id, LocalDate date, Emotion emotion, String title,
+            String content) {
+        return new DiarySearchIndexProjection() {
+            public Long getId() { return id; }
+            public LocalDate getDate() { return date; }
+            public Emotion getEmotion() { return emotion; }
+            public String getTitle() { return title; }
+            public String getContent() { return content; }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.p_project.p_project_backend;
+
+import com.p_project.p_project_backend.backend_user.repository.DiaryRepository;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchIndex;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchService;
+import com.p_project.p_project_backend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * FULLTEXT 경로는 후보만 좁히고 결과는 LIKE(검색어 전체의 부분 문자열)와 같아야 한다.
+ * 후보 질의가 일치하는 일기를 빠뜨릴 수 있는 검색어는 LIKE로만 검색한다.
+ */
+class DiarySearchServiceTest {
+
+    private final User user = User.builder().id(1L).email("user@example.com").build();
+    private DiaryRepository diaryRepository;
+    private DiarySearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        diaryRepository = mock(DiaryRepository.class);
+        when(diaryRepository.searchDiaries(any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+        when(diaryRepository.searchDiariesFulltext(anyLong(), anyString(), anyString(), any(), any(), anyList(),
+                anyBoolean(), any())).thenReturn(Page.empty());
+
+        searchService = new DiarySearchService(diaryRepository, mock(DiarySearchIndex.class));
+        ReflectionTestUtils.setField(searchService, "indexEnabled", false);
+        ReflectionTestUtils.setField(searchService, "minTokenLength", 2);
+    }
+
+    @Test
+    void singleWordUsesLikeWithDefaultParser() {
+        // 기본 파서는 단어 중간("산책을"의 "책을")을 찾지 못하므로 FULLTEXT 후보로 좁힐 수 없다
+        search("책을");
+
+        verify(diaryRepository).searchDiaries(eq(user), eq("책을"), isNull(), isNull(), isNull(), any());
+        verify(diaryRepository, never()).searchDiariesFulltext(anyLong(), anyString(), anyString(), any(), any(),
+                anyList(), anyBoolean(), any());
+    }
+
+    @Test
+    void defaultParserSkipsFirstWordAndPrefixesLastWord() {
+        search("  오늘 공원에서 산책 ");
+
+        verify(diaryRepository).searchDiariesFulltext(eq(1L), eq("+공원에서 +산책*"), eq("오늘 공원에서 산책"),
+                any(), any(), anyList(), eq(true), any());
+    }
+
+    @Test
+    void defaultParserSkipsShortAndPunctuatedWords() {
+        search("오늘 산책, 비");
+
+        verify(diaryRepository).searchDiaries(eq(user), eq("오늘 산책, 비"), isNull(), isNull(), isNull(), any());
+    }
+
+    @Test
+    void ngramParserSearchesEveryWordAsPhrase() {
+        ReflectionTestUtils.setField(searchService, "ngram", true);
+
+        search("책을 읽었다");
+
+        verify(diaryRepository).searchDiariesFulltext(eq(1L), eq("+\"책을\" +\"읽었다\""), eq("책을 읽었다"),
+                any(), any(), anyList(), eq(true), any());
+    }
+
+    @Test
+    void relevanceFallsBackToDateWhenOnlyLikeCanBeUsed() {
+        // 관련도 점수가 없는 LIKE 검색은 최신순이며, 응답에 실제 정렬을 알린다
+        assertEquals(DiarySearchService.SORT_DATE, search("책을").get("sort"));
+        assertEquals(DiarySearchService.SORT_RELEVANCE, search("오늘 공원에서 산책").get("sort"));
+    }
+
+    private Map<String, Object> search(String keyword) {
+        return searchService.searchDiaries(user, keyword, null, null, null, DiarySearchService.SORT_RELEVANCE, 1, 10,
+                false);
+    }
+}
@@ -0,0 +1,202 @@
+package com.p_project.p_project_backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.p_project.p_project_backend.backend_user.dto.ai.AiServiceResult;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryCreateRequest;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryResponse;
+import com.p_project.p_project_backend.backend_user.dto.diary.DiaryUpdateRequest;
+import com.p_project.p_project_backend.backend_user.repository.DiaryActivityRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiaryContentBatchRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiaryImageRepository;
+import com.p_project.p_project_backend.backend_user.repository.DiaryRepository;
+import com.p_project.p_project_backend.backend_user.service.AiJobService;
+import com.p_project.p_project_backend.backend_user.service.AiService;
+import com.p_project.p_project_backend.backend_user.service.DiarySearchIndex;
+import com.p_project.p_project_backend.backend_user.service.DiaryService;
+import com.p_project.p_project_backend.entity.Diary;
+import com.p_project.p_project_backend.entity.User;
+import com.p_project.p_project_backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * AI 호출 동안 트랜잭션(= DB 커넥션)이 열려 있지 않은지 검증한다.
+ * OSIV가 꺼져 있으면 JpaTransactionManager는 트랜잭션 시작 시 커넥션을 얻고 종료 시 반환하므로,
+ * 열린 트랜잭션 수를 커넥션 점유 여부로 볼 수 있다.
+ */
+@ExtendWith(MockitoExtension.class)
+class DiaryTransactionBoundaryTest {
+
+    private static final Duration SLOW_AI_LATENCY = Duration.ofMillis(300);
+
+    @Mock
+    private DiaryRepository diaryRepository;
+    @Mock
+    private DiaryActivityRepository diaryActivityRepository;
+    @Mock
+    private DiaryImageRepository diaryImageRepository;
+    @Mock
+    private DiaryContentBatchRepository diaryContentBatchRepository;
+    @Mock
+    private AiService aiService;
+    @Mock
+    private AiJobService aiJobService;
+    @Mock
+    private DiarySearchIndex diarySearchIndex;
+    @Mock
+    private UserRepository userRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+
+    @InjectMocks
+    private DiaryService diaryService;
+
+    @Test
+    void createDiary_ShouldNotHoldTransaction_WhileWaitingForAi() {
+        // Given
+        User user = User.builder().id(1L).email("user@example.com").build();
+        DiaryCreateRequest request = new DiaryCreateRequest();
+        request.setDate(LocalDate.of(2025, 12, 1));
+        request.setTitle("title");
+        request.setContent("content");
+        request.setActivities(Collections.emptyList());
+
+        AtomicInteger openTransactionsDuringAi = new AtomicInteger(-1);
+        when(diaryRepository.findByUserAndDate(user, request.getDate())).thenReturn(Optional.empty());
+        when(aiService.analyzeTextAsync(any())).thenReturn(slowAiResponse(openTransactionsDuringAi));
+        when(diaryRepository.saveAndFlush(any(Diary.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        DiaryResponse response = diaryService.createDiary(user, request).block();
+
+        // Then
+        assertEquals(0, openTransactionsDuringAi.get());
+        assertEquals(2, transactionManager.begunTransactions()); // read (검증) + write (저장)
+        assertEquals(0, transactionManager.openTransactions());
+        assertTrue(transactionManager.longestHold().compareTo(SLOW_AI_LATENCY) < 0,
+                "트랜잭션이 AI 응답 시간만큼 유지되었습니다: " + transactionManager.longestHold());
+        verify(diaryRepository, times(2)).findByUserAndDate(user, request.getDate()); // 저장 직전 재확인 포함
+        assertEquals("PENDING", response.getImageStatus()); // 이미지는 응답 이후 생성
+    }
+
+    @Test
+    void updateDiary_ShouldNotHoldTransaction_WhileWaitingForAi() {
+        // Given
+        User user = User.builder().id(1L).email("user@example.com").build();
+        Diary diary = Diary.builder()
+                .id(10L)
+                .user(user)
+                .date(LocalDate.of(2025, 12, 1))
+                .title("title")
+                .content("old content")
+                .persona(user.getPersona())
+                .emotion(Diary.Emotion.중립)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        DiaryUpdateRequest request = new DiaryUpdateRequest();
+        request.setTitle("title");
+        request.setContent("new content");
+        request.setActivities(Collections.emptyList());
+
+        AtomicInteger openTransactionsDuringAi = new AtomicInteger(-1);
+        when(diaryRepository.findById(10L)).thenReturn(Optional.of(diary));
+        when(diaryRepository.findDetailByIdAndUser(10L, user)).thenReturn(Optional.of(diary));
+        when(aiService.analyzeTextAsync(any())).thenReturn(slowAiResponse(openTransactionsDuringAi));
+
+        // When
+        diaryService.updateDiary(user, 10L, request).block();
+
+        // Then
+        assertEquals(0, openTransactionsDuringAi.get());
+        assertEquals(2, transactionManager.begunTransactions());
+        assertTrue(transactionManager.longestHold().compareTo(SLOW_AI_LATENCY) < 0,
+                "트랜잭션이 AI 응답 시간만큼 유지되었습니다: " + transactionManager.longestHold());
+        assertEquals(Diary.Emotion.행복, diary.getEmotion());
+    }
+
+    private Mono<AiServiceResult> slowAiResponse(AtomicInteger openTransactionsDuringAi) {
+        return Mono.fromCallable(() -> {
+            openTransactionsDuringAi.set(transactionManager.openTransactions());
+            return aiResult();
+        }).delayElement(SLOW_AI_LATENCY);
+    }
+
+    private AiServiceResult aiResult() {
+        return AiServiceResult.builder()
+                .emotion("행복")
+                .aiComment("comment")
+                .build();
+    }
+
+    /**
+     * 트랜잭션 시작/종료 시점을 기록하는 테스트용 TransactionManager
+     */
+    static class RecordingTransactionManager implements PlatformTransactionManager {
+
+        private final Map<TransactionStatus, Long> startedAt = new IdentityHashMap<>();
+        private int begun;
+        private long longestHoldNanos;
+
+        @Override
+        public synchronized TransactionStatus getTransaction(TransactionDefinition definition) {
+            TransactionStatus status = new SimpleTransactionStatus();
+            startedAt.put(status, System.nanoTime());
+            begun++;
+            return status;
+        }
+
+        @Override
+        public synchronized void commit(TransactionStatus status) {
+            release(status);
+        }
+
+        @Override
+        public synchronized void rollback(TransactionStatus status) {
+            release(status);
+        }
+
+        synchronized int openTransactions() {
+            return startedAt.size();
+        }
+
+        synchronized int begunTransactions() {
+            return begun;
+        }
+
+        synchronized Duration longestHold() {
+            return Duration.ofNanos(longestHoldNanos);
+        }
+
+        private void release(TransactionStatus status) {
+            Long start = startedAt.remove(status);
+            if (start != null) {
+                longestHoldNanos = Math.max(longestHoldNanos, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.p_project.p_project_backend;
+
+import com.p_project.p_project_backend.backend_user.dto.diary.DiarySearchResponse.Highlight;
+import com.p_project.p_project_backend.backend_user.service.SearchSnippet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchSnippetTest {
+
+    @Test
+    void shortContentIsReturnedWholeWithHighlights() {
+        SearchSnippet snippet = SearchSnippet.of("오늘은 공원에서 산책을 했다", SearchSnippet.terms("산책"), 120);
+
+        assertEquals("오늘은 공원에서 산책을 했다", snippet.snippet());
+        assertEquals(1, snippet.highlights().size());
+        assertEquals("산책", highlighted(snippet, snippet.highlights().get(0)));
+    }
+
+    @Test
+    void longContentIsCutAroundFirstMatch() {
+        String content = "가".repeat(300) + "산책" + "나".repeat(300);
+
+        SearchSnippet snippet = SearchSnippet.of(content, SearchSnippet.terms("산책"), 40);
+
+        assertTrue(snippet.snippet().startsWith("…"));
+        assertTrue(snippet.snippet().endsWith("…"));
+        assertEquals(1, snippet.highlights().size());
+        assertEquals("산책", highlighted(snippet, snippet.highlights().get(0)));
+    }
+
+    @Test
+    void matchingIsCaseInsensitiveForEveryTerm() {
+        SearchSnippet snippet = SearchSnippet.of("Walk in the park, then coffee", SearchSnippet.terms("walk COFFEE"), 120);
+
+        List<Highlight> highlights = snippet.highlights();
+        assertEquals(2, highlights.size());
+        assertEquals("Walk", highlighted(snippet, highlights.get(0)));
+        assertEquals("coffee", highlighted(snippet, highlights.get(1)));
+    }
+
+    @Test
+    void wholeKeywordIsAnchoredAndHighlightedBeforeSeparateWords() {
+        String content = "커피를 마셨다. " + "가".repeat(100) + " 카페에서 커피 한 잔";
+
+        SearchSnippet snippet = SearchSnippet.of(content, SearchSnippet.terms("카페에서 커피"), 40);
+
+        assertTrue(snippet.snippet().startsWith("…"));
+        assertEquals(List.of("카페에서 커피"), snippet.highlights().stream()
+                .map(highlight -> highlighted(snippet, highlight))
+                .toList());
+    }
+
+    @Test
+    void singleCharacterWordsAreNotHighlightedAlone() {
+        // 본문에 검색어 전체가 없으면(제목에서만 일치) 두 글자 이상의 단어만 강조한다
+        SearchSnippet snippet = SearchSnippet.of("비가 와서 비 오는 날 산책을 못 했다", SearchSnippet.terms("비 오는 산책"), 120);
+
+        assertEquals(List.of("오는", "산책"), snippet.highlights().stream()
+                .map(highlight -> highlighted(snippet, highlight))
+                .toList());
+    }
+
+    @Test
+    void noMatchReturnsLeadingPreview() {
+        SearchSnippet snippet = SearchSnippet.of("a".repeat(200), SearchSnippet.terms("산책"), 50);
+
+        assertEquals("a".repeat(50) + "…", snippet.snippet());
+        assertTrue(snippet.highlights().isEmpty());
+    }
+
+    private static String highlighted(SearchSnippet snippet, Highlight highlight) {
+        return snippet.snippet().substring(highlight.getStart(), highlight.getEnd());
+    }
+}
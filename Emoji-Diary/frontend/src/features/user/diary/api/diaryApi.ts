@@ -958,6 +958,8 @@ export async function searchDiaries(params: DiarySearchParams): Promise<DiarySea
           ...diary,
           // ID 타입 처리: 백엔드에서 숫자로 올 수 있으므로 string으로 변환
           id: String(diary.id || diary.id),
+          // 검색 결과는 본문 전체 대신 일치 위치 주변 미리보기(snippet)만 내려온다
+          content: (diary as any).snippet ?? diary.content,
           emotionCategory: getEmotionCategory(diary.emotion),
         })),
         total: result.total,